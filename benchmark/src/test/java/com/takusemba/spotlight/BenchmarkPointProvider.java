@@ -0,0 +1,53 @@
+package com.takusemba.spotlight;
+
+import android.graphics.PointF;
+import android.support.annotation.NonNull;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Point at a fixed position, either cacheable like a view anchored point or resolved on every frame.
+ * Writes the fields of the point directly, since the methods of PointF do nothing on the JVM.
+ */
+final class BenchmarkPointProvider extends AbstractPointProvider {
+
+    private final float x;
+    private final float y;
+    private final boolean cacheable;
+
+    BenchmarkPointProvider(float x, float y, boolean cacheable) {
+        this.x = x;
+        this.y = y;
+        this.cacheable = cacheable;
+    }
+
+    /**
+     * creates points spread over a screen sized area
+     */
+    static PointBuffer createPoints(int count, boolean cacheable) {
+        PointBuffer points = new PointBuffer();
+        List<PointProvider> providers = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            providers.add(new BenchmarkPointProvider((i * 97) % 1080, (i * 193) % 1920, cacheable));
+        }
+        points.set(providers);
+        return points;
+    }
+
+    @Override
+    public void getPoint(@NonNull PointF out) {
+        out.x = x;
+        out.y = y;
+    }
+
+    @Override
+    public boolean isVisible() {
+        return true;
+    }
+
+    @Override
+    boolean isCacheable() {
+        return cacheable;
+    }
+}
@@ -0,0 +1,47 @@
+package com.takusemba.spotlight;
+
+import android.app.Activity;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of building Targets with their builders, as done before every start
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class BuildBenchmark {
+
+    /**
+     * any non zero id, the layout is only inflated once the Target is shown
+     */
+    private static final int LAYOUT_ID = 1;
+
+    private final Activity activity = new Activity();
+
+    @Benchmark
+    public Target simpleTarget() {
+        return new SimpleTarget.Builder(activity)
+                .addPoint(540f, 960f)
+                .setRadius(100f)
+                .setTitle("title")
+                .setDescription("description")
+                .build();
+    }
+
+    @Benchmark
+    public Target customTarget() {
+        return new CustomTarget.Builder(activity)
+                .addPoint(540f, 960f)
+                .setShape(Shape.roundedRect(300f, 200f, 24f))
+                .setView(LAYOUT_ID)
+                .build();
+    }
+}
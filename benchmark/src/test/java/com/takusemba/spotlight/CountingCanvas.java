@@ -0,0 +1,63 @@
+package com.takusemba.spotlight;
+
+import android.graphics.Canvas;
+import android.graphics.Paint;
+import android.graphics.Path;
+import android.graphics.RectF;
+import android.graphics.Region;
+
+/**
+ * Stand-in for the canvas of SpotlightView, which only counts the calls made to it.
+ * Rasterizing is left to the device, so the benchmarks measure the work of the library per frame.
+ */
+final class CountingCanvas extends Canvas {
+
+    int calls;
+
+    @Override
+    public void drawRect(float left, float top, float right, float bottom, Paint paint) {
+        calls++;
+    }
+
+    @Override
+    public void drawCircle(float cx, float cy, float radius, Paint paint) {
+        calls++;
+    }
+
+    @Override
+    public void drawOval(RectF oval, Paint paint) {
+        calls++;
+    }
+
+    @Override
+    public void drawRoundRect(RectF rect, float rx, float ry, Paint paint) {
+        calls++;
+    }
+
+    @Override
+    public void drawPath(Path path, Paint paint) {
+        calls++;
+    }
+
+    @SuppressWarnings("deprecation")
+    @Override
+    public boolean clipPath(Path path, Region.Op op) {
+        calls++;
+        return true;
+    }
+
+    @Override
+    public boolean clipOutPath(Path path) {
+        calls++;
+        return true;
+    }
+
+    @Override
+    public int save() {
+        return 1;
+    }
+
+    @Override
+    public void restoreToCount(int saveCount) {
+    }
+}
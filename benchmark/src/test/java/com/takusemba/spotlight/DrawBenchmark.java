@@ -0,0 +1,56 @@
+package com.takusemba.spotlight;
+
+import android.graphics.Paint;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of a frame of SpotlightView against the number of points: resolving the points, then drawing the background
+ * and the shapes with each renderer. The mask bitmap renderer is left out, since bitmaps don't exist on the JVM.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class DrawBenchmark {
+
+    private static final int WIDTH = 1080;
+    private static final int HEIGHT = 1920;
+
+    @Param({"1", "10", "100"})
+    public int pointCount;
+
+    @Param({"xfermode", "clipPath"})
+    public String renderer;
+
+    @Param({"false", "true"})
+    public boolean batched;
+
+    private final CountingCanvas canvas = new CountingCanvas();
+    private final Paint background = new Paint();
+    private final Shape shape = Shape.circle(100f);
+    private SpotlightRenderer spotlightRenderer;
+    private PointBuffer points;
+
+    @Setup
+    public void setUp() {
+        spotlightRenderer = "clipPath".equals(renderer) ? new ClipPathRenderer() : new XfermodeRenderer();
+        spotlightRenderer.setBatched(batched);
+        points = BenchmarkPointProvider.createPoints(pointCount, false);
+    }
+
+    @Benchmark
+    public int frame() {
+        points.update();
+        spotlightRenderer.draw(canvas, WIDTH, HEIGHT, background, points, shape, 1f, true);
+        return canvas.calls;
+    }
+}
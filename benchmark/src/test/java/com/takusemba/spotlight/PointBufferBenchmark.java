@@ -0,0 +1,41 @@
+package com.takusemba.spotlight;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of resolving the points before a frame, with positions cached between layout passes or read every time
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class PointBufferBenchmark {
+
+    @Param({"1", "10", "100"})
+    public int pointCount;
+
+    @Param({"false", "true"})
+    public boolean cacheable;
+
+    private PointBuffer points;
+
+    @Setup
+    public void setUp() {
+        points = BenchmarkPointProvider.createPoints(pointCount, cacheable);
+        points.update();
+    }
+
+    @Benchmark
+    public int update() {
+        points.update();
+        return points.getModCount();
+    }
+}
@@ -0,0 +1,65 @@
+package com.takusemba.spotlight;
+
+import android.app.Activity;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.BitSet;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of creating a sequence and advancing through all its Targets, with or without completed ones to skip
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class SequenceBenchmark {
+
+    @Param({"10", "100"})
+    public int size;
+
+    private Target[] targets;
+    private BitSet completed;
+
+    @Setup
+    public void setUp() {
+        Activity activity = new Activity();
+        targets = new Target[size];
+        completed = new BitSet();
+        for (int i = 0; i < size; i++) {
+            targets[i] = new CustomTarget.Builder(activity).addPoint(0f, 0f).build();
+            if (i % 2 == 0) {
+                completed.set(i);
+            }
+        }
+    }
+
+    @Benchmark
+    public int advance() {
+        return advanceAll(null);
+    }
+
+    @Benchmark
+    public int advanceSkippingCompleted() {
+        return advanceAll(completed);
+    }
+
+    private int advanceAll(BitSet skipped) {
+        TargetSequence sequence = new TargetSequence(targets);
+        sequence.setSkipped(skipped);
+        int shown = 0;
+        if (sequence.skipToFirst()) {
+            do {
+                shown++;
+            } while (sequence.advance());
+        }
+        return shown;
+    }
+}
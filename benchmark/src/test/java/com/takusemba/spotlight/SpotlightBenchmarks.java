@@ -0,0 +1,35 @@
+package com.takusemba.spotlight;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.openjdk.jmh.runner.options.TimeValue;
+
+/**
+ * Runs every benchmark of this module and writes the results, with the bytes allocated per operation
+ * reported as gc.alloc.rate.norm, to the file given as argument. Started by the jmh task of this module.
+ */
+public final class SpotlightBenchmarks {
+
+    private SpotlightBenchmarks() {
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include("com\\.takusemba\\.spotlight\\..*Benchmark\\.")
+                // each benchmark runs in its own JVM, so that the JIT profile of one doesn't skew the next
+                .forks(1)
+                .warmupIterations(3)
+                .warmupTime(TimeValue.seconds(1))
+                .measurementIterations(5)
+                .measurementTime(TimeValue.seconds(1))
+                .addProfiler(GCProfiler.class)
+                .resultFormat(ResultFormatType.JSON)
+                .result(args[0])
+                .build();
+        new Runner(options).run();
+    }
+}
@@ -2,6 +2,9 @@ package com.takusemba.spotlight;
 
 import android.app.Activity;
 import android.graphics.PointF;
+import android.os.AsyncTask;
+import android.os.Handler;
+import android.os.Looper;
 import android.support.annotation.NonNull;
 import android.view.View;
 
@@ -19,6 +22,8 @@ abstract class AbstractBuilder<T extends AbstractBuilder<T, S>, S extends Target
     protected OnTargetStateChangedListener listener;
     protected List<PointProvider> points;
     protected float radius = 100f;
+    protected Shape shape;
+    private boolean tracking;
 
     /**
      * return the builder itself
@@ -30,6 +35,28 @@ abstract class AbstractBuilder<T extends AbstractBuilder<T, S>, S extends Target
      */
     protected abstract S build();
 
+    /**
+     * Builds the {@link Target} on a background thread, e.g. to lay out its text ahead of time,
+     * and hands it over on the main thread. The builder must not be changed until then.
+     *
+     * @param listener notified on the main thread with the built Target
+     */
+    public void buildAsync(@NonNull final OnTargetBuiltListener<S> listener) {
+        final Handler handler = new Handler(Looper.getMainLooper());
+        AsyncTask.THREAD_POOL_EXECUTOR.execute(new Runnable() {
+            @Override
+            public void run() {
+                final S target = build();
+                handler.post(new Runnable() {
+                    @Override
+                    public void run() {
+                        listener.onTargetBuilt(target);
+                    }
+                });
+            }
+        });
+    }
+
     /**
      * Return context weak reference
      *
@@ -64,18 +91,8 @@ abstract class AbstractBuilder<T extends AbstractBuilder<T, S>, S extends Target
      * @param x starting position of x where spotlight reveals
      * @return This Builder
      */
-    public T addPoint(final float x, final float y) {
-        points.add(new PointProvider() {
-            @Override
-            public PointF getPoint() {
-                return new PointF(x, y);
-            }
-
-            @Override
-            public boolean isVisible() {
-                return true;
-            }
-        });
+    public T addPoint(float x, float y) {
+        points.add(new FixedPointProvider(x, y));
         return self();
     }
 
@@ -91,28 +108,14 @@ abstract class AbstractBuilder<T extends AbstractBuilder<T, S>, S extends Target
 
     /**
      * Sets the initial position of target
-     * Make sure the view already has a fixed position
+     * The position follows the view, and is read again whenever the layout or scroll changes.
+     * Use {@link #setTracking(boolean)} to follow a view which moves by its translation.
      *
      * @param view starting position where spotlight reveals
      * @return This Builder
      */
-    public T addPointLazy(final @NonNull View view) {
-        addPointProvider(new PointProvider() {
-            @Override
-            public PointF getPoint() {
-                int[] location = new int[2];
-                view.getLocationInWindow(location);
-                int x = location[0] + view.getWidth() / 2;
-                int y = location[1] + view.getHeight() / 2;
-                return new PointF(x, y);
-            }
-
-            @Override
-            public boolean isVisible() {
-                return view.getVisibility() == View.VISIBLE;
-            }
-        });
-        return self();
+    public T addPointLazy(@NonNull View view) {
+        return addPointProvider(new ViewPointProvider(view, tracking));
     }
 
     /**
@@ -132,28 +135,33 @@ abstract class AbstractBuilder<T extends AbstractBuilder<T, S>, S extends Target
 
     /**
      * Sets the initial position of target
-     * Make sure the view already has a fixed position
+     * The positions follow the views, and are read again whenever the layout or scroll changes.
+     * Use {@link #setTracking(boolean)} to follow views which move by their translation.
      *
-     * @param view starting position where spotlight reveals
+     * @param views starting positions where spotlight reveals
      * @return This Builder
      */
     public T addPointsLazy(@NonNull List<View> views) {
-        final int[] location = new int[2];
-        for (final View view : views) {
-            addPointProvider(new PointProvider() {
-                @Override
-                public PointF getPoint() {
-                    view.getLocationInWindow(location);
-                    int x = location[0] + view.getWidth() / 2;
-                    int y = location[1] + view.getHeight() / 2;
-                    return new PointF(x, y);
-                }
-
-                @Override
-                public boolean isVisible() {
-                    return view.getVisibility() == View.VISIBLE;
-                }
-            });
+        for (View view : views) {
+            addPointProvider(new ViewPointProvider(view, tracking));
+        }
+        return self();
+    }
+
+    /**
+     * Sets whether the lazy points follow their views while the spotlight is shown,
+     * e.g. when they are moved by a RecyclerView, which neither scrolls nor lays out its parent.
+     * Their positions are checked before every frame and only the area around them is redrawn when they move.
+     *
+     * @param tracking true to follow the views of the lazy points
+     * @return This Builder
+     */
+    public T setTracking(boolean tracking) {
+        this.tracking = tracking;
+        for (PointProvider point : points) {
+            if (point instanceof ViewPointProvider) {
+                ((ViewPointProvider) point).setTracking(tracking);
+            }
         }
         return self();
     }
@@ -204,6 +212,24 @@ abstract class AbstractBuilder<T extends AbstractBuilder<T, S>, S extends Target
         return self();
     }
 
+    /**
+     * Sets the shape of target, which replaces the circle of {@link #setRadius(float)}
+     *
+     * @param shape shape of target
+     * @return This Builder
+     */
+    public T setShape(@NonNull Shape shape) {
+        this.shape = shape;
+        return self();
+    }
+
+    /**
+     * Returns the shape set to this builder, or a circle of the radius
+     */
+    protected Shape getShape() {
+        return shape != null ? shape : Shape.circle(radius);
+    }
+
     /**
      * Sets Target state changed Listener to target
      *
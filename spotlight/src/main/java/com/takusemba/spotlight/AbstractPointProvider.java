@@ -0,0 +1,40 @@
+package com.takusemba.spotlight;
+
+import android.graphics.PointF;
+import android.support.annotation.NonNull;
+
+/**
+ * {@link PointProvider} which writes its position into a given point instead of allocating one.
+ * {@link SpotlightView} reuses a single point for every provider of this type while drawing.
+ */
+public abstract class AbstractPointProvider implements PointProvider {
+
+    /**
+     * writes the current position into the given point
+     *
+     * @param out the point to be filled
+     */
+    public abstract void getPoint(@NonNull PointF out);
+
+    @Override
+    public PointF getPoint() {
+        PointF point = new PointF();
+        getPoint(point);
+        return point;
+    }
+
+    /**
+     * whether the position only changes with layout or scroll, so it can be cached between frames.
+     * the visibility is never cached.
+     */
+    boolean isCacheable() {
+        return false;
+    }
+
+    /**
+     * whether the position is checked before every frame, even while nothing is animating
+     */
+    boolean isTracking() {
+        return false;
+    }
+}
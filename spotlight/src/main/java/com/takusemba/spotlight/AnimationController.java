@@ -0,0 +1,164 @@
+package com.takusemba.spotlight;
+
+import android.animation.Animator;
+import android.animation.AnimatorListenerAdapter;
+import android.animation.TimeInterpolator;
+import android.animation.ValueAnimator;
+import android.os.Build;
+import android.support.annotation.NonNull;
+
+/**
+ * Owns one reusable animator per phase of a Spotlight session.
+ * Every animator runs from 0 to 1 and reports its fraction, so a whole sequence of targets
+ * runs on the same set of animators and listeners.
+ */
+class AnimationController {
+
+    static final int PHASE_FADE_IN = 0;
+    static final int PHASE_REVEAL = 1;
+    static final int PHASE_COLLAPSE = 2;
+    static final int PHASE_FADE_OUT = 3;
+    private static final int PHASE_COUNT = 4;
+
+    private final ValueAnimator[] animators = new ValueAnimator[PHASE_COUNT];
+    private final Callback callback;
+    private ValueAnimator current;
+
+    AnimationController(@NonNull Callback callback) {
+        this.callback = callback;
+    }
+
+    /**
+     * starts the animator of the given phase, cancelling the one which is running
+     *
+     * @param phase        one of the PHASE_* constants
+     * @param duration     duration of the animation
+     * @param interpolator type of the animation
+     */
+    void start(int phase, long duration, TimeInterpolator interpolator) {
+        cancel();
+        ValueAnimator animator = obtain(phase);
+        animator.setDuration(duration);
+        animator.setInterpolator(interpolator);
+        current = animator;
+        animator.start();
+    }
+
+    /**
+     * creates the animators of all the phases ahead of the first one being started
+     */
+    void prepare() {
+        for (int phase = 0; phase < PHASE_COUNT; phase++) {
+            obtain(phase);
+        }
+    }
+
+    /**
+     * gets the animator of the given phase, creating it the first time
+     */
+    private ValueAnimator obtain(int phase) {
+        ValueAnimator animator = animators[phase];
+        if (animator == null) {
+            animator = ValueAnimator.ofFloat(0f, 1f);
+            PhaseListener listener = new PhaseListener(phase);
+            animator.addUpdateListener(listener);
+            animator.addListener(listener);
+            animators[phase] = animator;
+        }
+        return animator;
+    }
+
+    /**
+     * cancels the running animator without notifying its end
+     */
+    void cancel() {
+        if (current != null && current.isStarted()) {
+            current.cancel();
+        }
+        current = null;
+    }
+
+    /**
+     * pauses the running animator where it is, on API 19 and above
+     */
+    void pause() {
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.KITKAT && current != null && current.isRunning()) {
+            current.pause();
+        }
+    }
+
+    /**
+     * resumes the animator paused by {@link #pause()}
+     */
+    void resume() {
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.KITKAT && current != null && current.isPaused()) {
+            current.resume();
+        }
+    }
+
+    /**
+     * whether an animator of the given phase is running
+     */
+    boolean isRunning(int phase) {
+        return current != null && current == animators[phase] && current.isRunning();
+    }
+
+    /**
+     * whether any animator is running
+     */
+    boolean isRunning() {
+        return current != null && current.isRunning();
+    }
+
+    /**
+     * Callback of the animators
+     */
+    interface Callback {
+        /**
+         * Called on every frame of the given phase
+         */
+        void onAnimationUpdate(int phase, float fraction);
+
+        /**
+         * Called when the animation of the given phase finished without being cancelled
+         */
+        void onAnimationEnd(int phase);
+    }
+
+    private class PhaseListener extends AnimatorListenerAdapter
+            implements ValueAnimator.AnimatorUpdateListener {
+
+        private final int phase;
+        private boolean cancelled;
+
+        PhaseListener(int phase) {
+            this.phase = phase;
+        }
+
+        @Override
+        public void onAnimationUpdate(ValueAnimator animation) {
+            callback.onAnimationUpdate(phase, animation.getAnimatedFraction());
+        }
+
+        @Override
+        public void onAnimationStart(Animator animation) {
+            cancelled = false;
+        }
+
+        @Override
+        public void onAnimationCancel(Animator animation) {
+            cancelled = true;
+        }
+
+        @Override
+        public void onAnimationEnd(Animator animation) {
+            if (cancelled) {
+                return;
+            }
+            if (current == animation) {
+                current = null;
+            }
+            callback.onAnimationEnd(phase);
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package com.takusemba.spotlight;
+
+import android.graphics.Canvas;
+import android.graphics.Paint;
+import android.graphics.Path;
+import android.graphics.Region;
+import android.os.Build;
+import android.view.View;
+
+/**
+ * Renderer which clips the shapes out of the canvas before drawing the background.
+ * Needs no offscreen layer, but the edges of the shapes are not anti-aliased.
+ */
+class ClipPathRenderer implements SpotlightRenderer {
+
+    private final Path path = new Path();
+
+    @Override
+    public int getLayerType() {
+        // clipPath is not supported by hardware acceleration before API 18
+        return Build.VERSION.SDK_INT >= Build.VERSION_CODES.JELLY_BEAN_MR2
+                ? View.LAYER_TYPE_NONE : View.LAYER_TYPE_SOFTWARE;
+    }
+
+    @Override
+    public void draw(Canvas canvas, int width, int height, Paint background, PointBuffer points,
+                     Shape shape, float scale, boolean animating) {
+        if (shape == null || scale <= 0) {
+            canvas.drawRect(0, 0, width, height, background);
+            return;
+        }
+        int count = canvas.save();
+        if (shape.canBatch()) {
+            path.rewind();
+            path.setFillType(Path.FillType.WINDING);
+            for (int i = 0, size = points.size(); i < size; i++) {
+                if (points.isVisible(i)) {
+                    shape.addTo(path, points.getX(i), points.getY(i), scale);
+                }
+            }
+            clipOut(canvas, path);
+        } else {
+            // clipped one by one, so that each shape keeps its own fill type
+            for (int i = 0, size = points.size(); i < size; i++) {
+                if (points.isVisible(i)) {
+                    path.rewind();
+                    shape.addTo(path, points.getX(i), points.getY(i), scale);
+                    clipOut(canvas, path);
+                }
+            }
+        }
+        canvas.drawRect(0, 0, width, height, background);
+        canvas.restoreToCount(count);
+    }
+
+    @SuppressWarnings("deprecation")
+    private static void clipOut(Canvas canvas, Path path) {
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.O) {
+            canvas.clipOutPath(path);
+        } else {
+            canvas.clipPath(path, Region.Op.DIFFERENCE);
+        }
+    }
+
+    @Override
+    public void setBatched(boolean batched) {
+        // the shapes are always merged into one clip path
+    }
+
+    @Override
+    public void release() {
+        path.rewind();
+    }
+}
@@ -1,10 +1,13 @@
 package com.takusemba.spotlight;
 
 import android.app.Activity;
-import android.graphics.PointF;
 import android.support.annotation.LayoutRes;
+import android.support.annotation.NonNull;
+import android.support.v4.view.AsyncLayoutInflater;
 import android.view.View;
+import android.view.ViewGroup;
 
+import java.lang.ref.WeakReference;
 import java.util.List;
 
 /**
@@ -13,20 +16,30 @@ import java.util.List;
  * @author takusemba
  * @since 26/06/2017
  **/
-public class CustomTarget implements Target {
+public class CustomTarget implements ShapedTarget {
 
+    private final LazyView lazyView = new CustomLazyView();
+    private WeakReference<Activity> contextWeakReference;
     private List<PointProvider> points;
     private float radius;
+    private Shape shape;
     private View view;
+    @LayoutRes
+    private int layoutId;
+    private boolean viewShared;
     private OnTargetStateChangedListener listener;
 
     /**
      * Constructor
      */
-    private CustomTarget(List<PointProvider> points, float radius, View view, OnTargetStateChangedListener listener) {
+    private CustomTarget(Activity context, List<PointProvider> points, float radius, Shape shape, View view,
+                         @LayoutRes int layoutId, OnTargetStateChangedListener listener) {
+        this.contextWeakReference = new WeakReference<>(context);
         this.points = points;
         this.radius = radius;
+        this.shape = shape;
         this.view = view;
+        this.layoutId = layoutId;
         this.listener = listener;
     }
 
@@ -40,16 +53,87 @@ public class CustomTarget implements Target {
         return radius;
     }
 
+    @Override
+    public Shape getShape() {
+        return shape;
+    }
+
+    /**
+     * inflates the view the first time it is requested when the Target was built with a layout id.
+     * the view is then kept for the lifetime of this Target, since the caller may have bound to it.
+     */
     @Override
     public View getView() {
+        viewShared = true;
+        return inflateView();
+    }
+
+    /**
+     * inflates the view if it was not yet, without handing it out
+     */
+    private View inflateView() {
+        if (view == null && layoutId != 0) {
+            Activity context = contextWeakReference.get();
+            if (context == null) {
+                throw new RuntimeException("context is null");
+            }
+            view = context.getLayoutInflater().inflate(layoutId, null);
+        }
         return view;
     }
 
+    /**
+     * gets the view of this Target as {@link Spotlight} creates and releases it
+     */
+    LazyView getLazyView() {
+        return lazyView;
+    }
+
     @Override
     public OnTargetStateChangedListener getListener() {
         return listener;
     }
 
+    private final class CustomLazyView extends LazyView {
+
+        @Override
+        View obtainView(TargetViewPool pool) {
+            // custom views may hold state set by the user, so they are never pooled
+            return inflateView();
+        }
+
+        @Override
+        void prepareView(TargetViewPool pool, AsyncLayoutInflater inflater, final Runnable onPrepared) {
+            if (view != null || layoutId == 0) {
+                onPrepared.run();
+                return;
+            }
+            inflater.inflate(layoutId, null, new AsyncLayoutInflater.OnInflateFinishedListener() {
+                @Override
+                public void onInflateFinished(@NonNull View inflated, int resid, ViewGroup parent) {
+                    // the view may have been inflated on the main thread in the meantime
+                    if (view == null) {
+                        view = inflated;
+                    }
+                    onPrepared.run();
+                }
+            });
+        }
+
+        @Override
+        boolean needsActivityFactory() {
+            return true;
+        }
+
+        @Override
+        void releaseView(TargetViewPool pool) {
+            // a view set by the user, or handed out by getView(), can't be created again as it was
+            if (layoutId != 0 && !viewShared) {
+                view = null;
+            }
+        }
+    }
+
     /**
      * Builder class which makes it easier to create {@link CustomTarget}
      */
@@ -61,6 +145,8 @@ public class CustomTarget implements Target {
         }
 
         private View view;
+        @LayoutRes
+        private int layoutId;
 
         /**
          * Constructor
@@ -71,15 +157,14 @@ public class CustomTarget implements Target {
 
         /**
          * Set the custom view shown on Spotlight
+         * The layout is inflated when Spotlight reaches this Target
          *
          * @param layoutId layout id shown on Spotlight
          * @return This Builder
          */
         public Builder setView(@LayoutRes int layoutId) {
-            if (getContext() == null) {
-                throw new RuntimeException("context is null");
-            }
-            this.view = getContext().getLayoutInflater().inflate(layoutId, null);
+            this.layoutId = layoutId;
+            this.view = null;
             return this;
         }
 
@@ -91,6 +176,7 @@ public class CustomTarget implements Target {
          */
         public Builder setView(View view) {
             this.view = view;
+            this.layoutId = 0;
             return this;
         }
 
@@ -101,7 +187,7 @@ public class CustomTarget implements Target {
          */
         @Override
         public CustomTarget build() {
-            return new CustomTarget(points, radius, view, listener);
+            return new CustomTarget(getContext(), points, radius, getShape(), view, layoutId, listener);
         }
     }
 }
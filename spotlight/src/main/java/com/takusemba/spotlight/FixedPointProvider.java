@@ -0,0 +1,33 @@
+package com.takusemba.spotlight;
+
+import android.graphics.PointF;
+import android.support.annotation.NonNull;
+
+/**
+ * {@link PointProvider} which always returns the same position
+ */
+class FixedPointProvider extends AbstractPointProvider {
+
+    private final float x;
+    private final float y;
+
+    FixedPointProvider(float x, float y) {
+        this.x = x;
+        this.y = y;
+    }
+
+    @Override
+    public void getPoint(@NonNull PointF out) {
+        out.set(x, y);
+    }
+
+    @Override
+    public boolean isVisible() {
+        return true;
+    }
+
+    @Override
+    boolean isCacheable() {
+        return true;
+    }
+}
@@ -0,0 +1,186 @@
+package com.takusemba.spotlight;
+
+import android.os.Build;
+import android.view.Choreographer;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Collects the frame timings of the Target being shown.
+ * Only created when an {@link OnSpotlightMetricsListener} is set.
+ * Frames are only counted while an animation runs, since nothing is drawn in between.
+ */
+final class FrameMetricsCollector {
+
+    /**
+     * used when the display doesn't report its refresh rate
+     */
+    private static final float DEFAULT_REFRESH_RATE = 60f;
+
+    private final AnimationController animationController;
+    private final FrameCallback frameCallback;
+    private final long frameBudget;
+    private long[] drawDurations = new long[64];
+    private int drawCount;
+    private long startTime;
+    private long timeToFirstFrame;
+    private long lastFrameTime;
+    private int frameCount;
+    private int framesOverBudget;
+    private long pointResolutionDuration;
+    private boolean collecting;
+    private boolean paused;
+
+    /**
+     * @param animationController animations whose frames are counted
+     * @param refreshRate         refresh rate of the display in frames per second, which sets the frame budget
+     */
+    FrameMetricsCollector(AnimationController animationController, float refreshRate) {
+        this.animationController = animationController;
+        frameBudget = (long) (TimeUnit.SECONDS.toNanos(1) / (refreshRate > 0 ? refreshRate : DEFAULT_REFRESH_RATE));
+        // Choreographer is only available from API 16, below that frames are counted in onDraw
+        frameCallback = Build.VERSION.SDK_INT >= Build.VERSION_CODES.JELLY_BEAN ? new FrameCallback(this) : null;
+    }
+
+    /**
+     * starts collecting the timings of a new Target
+     */
+    void begin() {
+        drawCount = 0;
+        startTime = System.nanoTime();
+        timeToFirstFrame = -1;
+        lastFrameTime = 0;
+        frameCount = 0;
+        framesOverBudget = 0;
+        pointResolutionDuration = 0;
+        collecting = true;
+    }
+
+    /**
+     * counts the frames of an animation which just started, until no animation runs any more
+     */
+    void onAnimationStarted() {
+        if (collecting && !paused && frameCallback != null) {
+            // the time between two animations is not a missed frame
+            lastFrameTime = 0;
+            frameCallback.post();
+        }
+    }
+
+    /**
+     * stops counting frames while the animation is paused
+     */
+    void pause() {
+        paused = true;
+        if (frameCallback != null) {
+            frameCallback.remove();
+        }
+    }
+
+    /**
+     * counts frames again once the paused animation resumes
+     */
+    void resume() {
+        paused = false;
+        if (collecting && frameCallback != null && animationController.isRunning()) {
+            // the time spent paused is not a missed frame
+            lastFrameTime = 0;
+            frameCallback.post();
+        }
+    }
+
+    /**
+     * stops collecting and summarizes the timings of the Target
+     */
+    TargetMetrics end() {
+        collecting = false;
+        if (frameCallback != null) {
+            frameCallback.remove();
+        }
+        long[] sorted = Arrays.copyOf(drawDurations, drawCount);
+        Arrays.sort(sorted);
+        int frames = frameCallback != null ? frameCount : drawCount;
+        return new TargetMetrics(timeToFirstFrame, frames, framesOverBudget,
+                percentile(sorted, 50), percentile(sorted, 95), percentile(sorted, 99),
+                pointResolutionDuration);
+    }
+
+    /**
+     * stops collecting without reporting
+     */
+    void cancel() {
+        collecting = false;
+        if (frameCallback != null) {
+            frameCallback.remove();
+        }
+    }
+
+    void onFrameDrawn(long drawDuration) {
+        if (!collecting) {
+            return;
+        }
+        if (timeToFirstFrame < 0) {
+            timeToFirstFrame = System.nanoTime() - startTime;
+        }
+        if (drawCount == drawDurations.length) {
+            drawDurations = Arrays.copyOf(drawDurations, drawCount * 2);
+        }
+        drawDurations[drawCount++] = drawDuration;
+        if (frameCallback == null && drawDuration > frameBudget) {
+            framesOverBudget++;
+        }
+    }
+
+    void onPointsResolved(long duration) {
+        if (collecting) {
+            pointResolutionDuration += duration;
+        }
+    }
+
+    private void onFrame(long frameTimeNanos) {
+        if (lastFrameTime != 0 && frameTimeNanos - lastFrameTime > frameBudget * 3 / 2) {
+            // at least one vsync was missed since the last frame
+            framesOverBudget++;
+        }
+        lastFrameTime = frameTimeNanos;
+        frameCount++;
+    }
+
+    private static long percentile(long[] sorted, int percentile) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int index = (int) Math.ceil(percentile / 100.0 * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(index, sorted.length - 1))];
+    }
+
+    /**
+     * Counts frames with Choreographer. Kept in its own class so it is never loaded below API 16.
+     */
+    private static final class FrameCallback implements Choreographer.FrameCallback {
+
+        private final FrameMetricsCollector collector;
+
+        FrameCallback(FrameMetricsCollector collector) {
+            this.collector = collector;
+        }
+
+        void post() {
+            Choreographer.getInstance().removeFrameCallback(this);
+            Choreographer.getInstance().postFrameCallback(this);
+        }
+
+        void remove() {
+            Choreographer.getInstance().removeFrameCallback(this);
+        }
+
+        @Override
+        public void doFrame(long frameTimeNanos) {
+            if (collector.collecting && !collector.paused && collector.animationController.isRunning()) {
+                collector.onFrame(frameTimeNanos);
+                Choreographer.getInstance().postFrameCallback(this);
+            }
+        }
+    }
+}
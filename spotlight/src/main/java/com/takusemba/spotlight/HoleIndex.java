@@ -0,0 +1,155 @@
+package com.takusemba.spotlight;
+
+/**
+ * Uniform grid over the holes of a Target, to find the hole under a touch without testing every point.
+ * Each cell is at least as large as a hole, so a hole is registered in at most four cells,
+ * and a touch only tests the holes of its own cell.
+ * The grid is rebuilt lazily when the points, the shape or the scale changed since the last query.
+ */
+final class HoleIndex {
+
+    /**
+     * upper bound of cells per side, so that small holes spread over a large area do not explode the grid
+     */
+    private static final int MAX_CELLS_PER_SIDE = 64;
+
+    private int[] cellStarts = new int[0];
+    private int[] entries = new int[0];
+    private int columns;
+    private int rows;
+    private float left;
+    private float top;
+    private float cellSize;
+
+    private PointBuffer builtPoints;
+    private int builtModCount;
+    private Shape builtShape;
+    private float builtScale;
+
+    /**
+     * finds the hole containing a position
+     *
+     * @return the index of the point of the hole, or -1 if the position is outside every hole
+     */
+    int findHole(PointBuffer points, Shape shape, float scale, float x, float y) {
+        if (builtPoints != points || builtModCount != points.getModCount()
+                || builtShape != shape || builtScale != scale) {
+            build(points, shape, scale);
+        }
+        if (columns == 0) {
+            return -1;
+        }
+        int column = (int) ((x - left) / cellSize);
+        int row = (int) ((y - top) / cellSize);
+        if (x < left || y < top || column >= columns || row >= rows) {
+            return -1;
+        }
+        int cell = row * columns + column;
+        for (int i = cellStarts[cell], end = cellStarts[cell + 1]; i < end; i++) {
+            int index = entries[i];
+            if (shape.contains(x - points.getX(index), y - points.getY(index), scale)) {
+                return index;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * drops the grid, e.g. when the view is detached
+     */
+    void clear() {
+        builtPoints = null;
+        builtShape = null;
+        columns = 0;
+        rows = 0;
+    }
+
+    private void build(PointBuffer points, Shape shape, float scale) {
+        builtPoints = points;
+        builtModCount = points.getModCount();
+        builtShape = shape;
+        builtScale = scale;
+        columns = 0;
+        rows = 0;
+        float extent = shape.getExtent() * scale;
+        if (extent <= 0) {
+            return;
+        }
+        float right = -Float.MAX_VALUE;
+        float bottom = -Float.MAX_VALUE;
+        left = Float.MAX_VALUE;
+        top = Float.MAX_VALUE;
+        int visibleCount = 0;
+        for (int i = 0, size = points.size(); i < size; i++) {
+            if (points.isVisible(i)) {
+                left = Math.min(left, points.getX(i) - extent);
+                top = Math.min(top, points.getY(i) - extent);
+                right = Math.max(right, points.getX(i) + extent);
+                bottom = Math.max(bottom, points.getY(i) + extent);
+                visibleCount++;
+            }
+        }
+        if (visibleCount == 0) {
+            return;
+        }
+        cellSize = Math.max(extent * 2, Math.max(right - left, bottom - top) / MAX_CELLS_PER_SIDE);
+        columns = (int) ((right - left) / cellSize) + 1;
+        rows = (int) ((bottom - top) / cellSize) + 1;
+        int cellCount = columns * rows;
+        if (cellStarts.length < cellCount + 1) {
+            cellStarts = new int[cellCount + 1];
+        } else {
+            for (int i = 0; i <= cellCount; i++) {
+                cellStarts[i] = 0;
+            }
+        }
+        // counting pass, then a placing pass, so the entries of a cell are contiguous
+        for (int i = 0, size = points.size(); i < size; i++) {
+            if (points.isVisible(i)) {
+                addToCells(points, i, extent, null);
+            }
+        }
+        int total = 0;
+        for (int cell = 0; cell < cellCount; cell++) {
+            int count = cellStarts[cell];
+            cellStarts[cell] = total;
+            total += count;
+        }
+        cellStarts[cellCount] = total;
+        if (entries.length < total) {
+            entries = new int[total];
+        }
+        for (int i = 0, size = points.size(); i < size; i++) {
+            if (points.isVisible(i)) {
+                addToCells(points, i, extent, entries);
+            }
+        }
+        // the placing pass advanced every start to the start of the next cell
+        for (int cell = cellCount; cell > 0; cell--) {
+            cellStarts[cell] = cellStarts[cell - 1];
+        }
+        cellStarts[0] = 0;
+    }
+
+    /**
+     * counts the point in every cell its hole overlaps, or places it there if entries is given
+     */
+    private void addToCells(PointBuffer points, int index, float extent, int[] entries) {
+        float x = points.getX(index);
+        float y = points.getY(index);
+        int firstColumn = (int) ((x - extent - left) / cellSize);
+        int lastColumn = Math.min(columns - 1, (int) ((x + extent - left) / cellSize));
+        int firstRow = (int) ((y - extent - top) / cellSize);
+        int lastRow = Math.min(rows - 1, (int) ((y + extent - top) / cellSize));
+        for (int row = firstRow; row <= lastRow; row++) {
+            for (int column = firstColumn; column <= lastColumn; column++) {
+                int cell = row * columns + column;
+                if (entries == null) {
+                    cellStarts[cell]++;
+                } else {
+                    entries[cellStarts[cell]++] = index;
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package com.takusemba.spotlight;
+
+import android.support.annotation.Nullable;
+import android.support.v4.view.AsyncLayoutInflater;
+import android.view.View;
+
+/**
+ * Creates the view of a built-in Target only when {@link Spotlight} reaches it,
+ * and positions it while {@link SpotlightView} is measured.
+ * Held by the Target instead of implemented by it, so that none of this is part of the API of the Target.
+ */
+abstract class LazyView {
+
+    /**
+     * gets the lazy view of a Target
+     *
+     * @return the lazy view, or null for Targets which only have {@link Target#getView()}
+     */
+    @Nullable
+    static LazyView of(Target target) {
+        if (target instanceof SimpleTarget) {
+            return ((SimpleTarget) target).getLazyView();
+        }
+        if (target instanceof CustomTarget) {
+            return ((CustomTarget) target).getLazyView();
+        }
+        return null;
+    }
+
+    /**
+     * gets the view of the Target, reusing a pooled view when possible
+     *
+     * @param pool pool of the SpotlightView showing the Target
+     * @return the view of the Target
+     */
+    abstract View obtainView(TargetViewPool pool);
+
+    /**
+     * creates the view of the Target ahead of time, inflating it on a background thread when possible
+     *
+     * @param pool       pool of the SpotlightView which will show the Target
+     * @param inflater   inflater to inflate the view with
+     * @param onPrepared run on the main thread once {@link #obtainView(TargetViewPool)} no longer inflates
+     */
+    abstract void prepareView(TargetViewPool pool, AsyncLayoutInflater inflater, Runnable onPrepared);
+
+    /**
+     * whether the view comes from a layout of the app, which may rely on the factory of the Activity,
+     * e.g. the one AppCompat uses to replace widgets, that AsyncLayoutInflater ignores
+     */
+    boolean needsActivityFactory() {
+        return false;
+    }
+
+    /**
+     * releases the view created by {@link #obtainView(TargetViewPool)} after the Target ended
+     *
+     * @param pool pool of the SpotlightView showing the Target
+     */
+    abstract void releaseView(TargetViewPool pool);
+
+    /**
+     * Called once before SpotlightView measures the view of the Target.
+     * The view can be constrained by changing the margins of its layout params in place,
+     * which doesn't request another layout pass.
+     *
+     * @param view   the view of the Target
+     * @param width  width of SpotlightView
+     * @param height height of SpotlightView
+     */
+    void onPreMeasure(View view, int width, int height) {
+    }
+
+    /**
+     * Called once after SpotlightView measured the view of the Target, to position it
+     *
+     * @param view   the view of the Target
+     * @param width  width of SpotlightView
+     * @param height height of SpotlightView
+     */
+    void onPostMeasure(View view, int width, int height) {
+    }
+}
@@ -0,0 +1,54 @@
+package com.takusemba.spotlight;
+
+import android.graphics.Canvas;
+import android.graphics.Paint;
+import android.graphics.Path;
+import android.graphics.PorterDuff;
+import android.graphics.PorterDuffXfermode;
+
+/**
+ * Renderer which draws the background into a bitmap once the shapes finished opening,
+ * and then only draws that bitmap until something changes.
+ * Before that, and while fading, it draws the same way as {@link ClipPathRenderer}, without an offscreen layer.
+ * The bitmap is ARGB_8888 and of the size of the view, so it trades that memory for cheaper settled frames.
+ */
+class MaskBitmapRenderer implements SpotlightRenderer {
+
+    private final ClipPathRenderer animatingRenderer = new ClipPathRenderer();
+    private final OverlayCache mask = new OverlayCache();
+    private final Paint spotPaint = new Paint(Paint.ANTI_ALIAS_FLAG);
+    private final Path batch = new Path();
+    private boolean batched;
+
+    MaskBitmapRenderer() {
+        spotPaint.setXfermode(new PorterDuffXfermode(PorterDuff.Mode.CLEAR));
+    }
+
+    @Override
+    public int getLayerType() {
+        return animatingRenderer.getLayerType();
+    }
+
+    @Override
+    public void draw(Canvas canvas, int width, int height, Paint background, PointBuffer points,
+                     Shape shape, float scale, boolean animating) {
+        if (animating || width <= 0 || height <= 0) {
+            animatingRenderer.draw(canvas, width, height, background, points, shape, scale, animating);
+            return;
+        }
+        mask.draw(canvas, width, height, background, points, shape, scale, spotPaint, batched ? batch : null);
+    }
+
+    @Override
+    public void setBatched(boolean batched) {
+        this.batched = batched;
+        mask.invalidate();
+    }
+
+    @Override
+    public void release() {
+        animatingRenderer.release();
+        batch.rewind();
+        mask.release();
+    }
+}
@@ -0,0 +1,15 @@
+package com.takusemba.spotlight;
+
+/**
+ * On Spotlight Metrics Listener
+ * Receives frame timings of every Target, e.g. to report them to telemetry
+ **/
+public interface OnSpotlightMetricsListener {
+    /**
+     * Called when a Target ended with the frame timings measured while it was shown
+     *
+     * @param target  the Target which ended
+     * @param metrics the frame timings of the Target
+     */
+    void onTargetMetrics(Target target, TargetMetrics metrics);
+}
@@ -0,0 +1,11 @@
+package com.takusemba.spotlight;
+
+/**
+ * On Spotlight Outside Click Listener
+ **/
+public interface OnSpotlightOutsideClickListener {
+    /**
+     * Called when the overlay is clicked outside of the holes of the current Target
+     */
+    void onOutsideClicked();
+}
@@ -0,0 +1,13 @@
+package com.takusemba.spotlight;
+
+/**
+ * On Target Built Listener
+ **/
+public interface OnTargetBuiltListener<T extends Target> {
+    /**
+     * Called on the main thread when the Target built in the background is ready to be passed to Spotlight
+     *
+     * @param target the built Target
+     */
+    void onTargetBuilt(T target);
+}
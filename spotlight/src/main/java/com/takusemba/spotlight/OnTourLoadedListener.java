@@ -0,0 +1,20 @@
+package com.takusemba.spotlight;
+
+/**
+ * On Tour Loaded Listener
+ **/
+public interface OnTourLoadedListener {
+    /**
+     * Called on the main thread when the tour definition is parsed, or found in the cache
+     *
+     * @param tour the parsed tour definition
+     */
+    void onTourLoaded(TourDefinition tour);
+
+    /**
+     * Called on the main thread when the tour definition can't be read or is malformed
+     *
+     * @param e the cause of the failure
+     */
+    void onTourFailed(Exception e);
+}
@@ -0,0 +1,99 @@
+package com.takusemba.spotlight;
+
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.graphics.Color;
+import android.graphics.Paint;
+import android.graphics.Path;
+import android.support.annotation.Nullable;
+
+/**
+ * Bitmap of the size of {@link SpotlightView} holding a settled frame of the background for the renderers,
+ * so that it is drawn with a single blit until the shapes, their positions or the background change.
+ */
+final class OverlayCache {
+
+    private final Canvas cacheCanvas = new Canvas();
+    private Bitmap bitmap;
+    private boolean valid;
+    private int renderedModCount;
+    private Shape renderedShape;
+    private float renderedScale;
+    private int renderedColor;
+
+    /**
+     * draws the settled frame, drawing the background and the shapes into the cache first
+     * if they changed since it was cached
+     *
+     * @param spotPaint paint clearing the shapes out of the background
+     * @param batch     if not null, the path the shapes are merged into, see {@link Shape#drawAll}
+     */
+    void draw(Canvas canvas, int width, int height, Paint background, PointBuffer points,
+              Shape shape, float scale, Paint spotPaint, @Nullable Path batch) {
+        if (!isValid(width, height, background, points, shape, scale)) {
+            Canvas cacheCanvas = begin(width, height);
+            cacheCanvas.drawRect(0, 0, width, height, background);
+            if (shape != null && scale > 0) {
+                shape.drawAll(cacheCanvas, points, scale, spotPaint, batch);
+            }
+            end(background, points, shape, scale);
+        }
+        canvas.drawBitmap(bitmap, 0, 0, null);
+    }
+
+    /**
+     * whether the cached frame can be drawn for the given state
+     */
+    private boolean isValid(int width, int height, Paint background, PointBuffer points, Shape shape, float scale) {
+        return valid && bitmap != null && bitmap.getWidth() == width && bitmap.getHeight() == height
+                && renderedModCount == points.getModCount() && renderedShape == shape
+                && renderedScale == scale && renderedColor == background.getColor();
+    }
+
+    /**
+     * prepares the cache to be drawn on, reusing the bitmap while the size doesn't change
+     *
+     * @return the canvas to draw the frame on
+     */
+    private Canvas begin(int width, int height) {
+        if (bitmap == null || bitmap.getWidth() != width || bitmap.getHeight() != height) {
+            release();
+            bitmap = Bitmap.createBitmap(width, height, Bitmap.Config.ARGB_8888);
+            cacheCanvas.setBitmap(bitmap);
+        } else {
+            bitmap.eraseColor(Color.TRANSPARENT);
+        }
+        return cacheCanvas;
+    }
+
+    /**
+     * marks the frame drawn since {@link #begin(int, int)} as the cached one for the given state
+     */
+    private void end(Paint background, PointBuffer points, Shape shape, float scale) {
+        valid = true;
+        renderedModCount = points.getModCount();
+        renderedShape = shape;
+        renderedScale = scale;
+        renderedColor = background.getColor();
+    }
+
+    /**
+     * makes the cached frame drawn again the next time
+     */
+    void invalidate() {
+        valid = false;
+    }
+
+    /**
+     * recycles the bitmap
+     */
+    void release() {
+        valid = false;
+        renderedShape = null;
+        if (bitmap != null) {
+            cacheCanvas.setBitmap(null);
+            bitmap.recycle();
+            bitmap = null;
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package com.takusemba.spotlight;
+
+import android.graphics.Canvas;
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+import android.util.DisplayMetrics;
+
+/**
+ * Text of a built-in Target which can be drawn by {@link SpotlightView} on its own canvas instead of by a child view,
+ * see {@link Spotlight#setDrawTextOnOverlay(boolean)}.
+ * Held by the Target instead of implemented by it, so that none of this is part of the API of the Target.
+ */
+abstract class OverlayText {
+
+    /**
+     * gets the text of a Target which can be drawn on the overlay
+     *
+     * @return the text, or null for Targets which can only be shown with a view
+     */
+    @Nullable
+    static OverlayText of(Target target) {
+        return target instanceof SimpleTarget ? ((SimpleTarget) target).getOverlayText() : null;
+    }
+
+    /**
+     * gets the text read by accessibility services in place of the text drawn on the overlay
+     *
+     * @return the text of the Target, or null if there's none
+     */
+    abstract CharSequence getAccessibilityText();
+
+    /**
+     * Called before the text is drawn for the first time, and again when the size of SpotlightView
+     * or the positions of the points change
+     *
+     * @param metrics metrics of the display the text is drawn on
+     * @param width   width of SpotlightView
+     * @param height  height of SpotlightView
+     */
+    abstract void layoutOnOverlay(@NonNull DisplayMetrics metrics, int width, int height);
+
+    /**
+     * draws the text laid out by {@link #layoutOnOverlay(DisplayMetrics, int, int)}
+     *
+     * @param canvas canvas of SpotlightView
+     */
+    abstract void drawOnOverlay(@NonNull Canvas canvas);
+}
@@ -0,0 +1,190 @@
+package com.takusemba.spotlight;
+
+import android.graphics.PointF;
+
+import java.util.List;
+
+/**
+ * Primitive buffer holding the positions of {@link PointProvider}s.
+ * Once the providers are set, {@link #update()} resolves them without allocating.
+ * Cacheable providers only have their position resolved again after {@link #invalidate()}, the others on every update.
+ * The visibility of every provider is checked on every update, since it can change without a layout pass.
+ */
+final class PointBuffer {
+
+    private static final PointProvider[] EMPTY = new PointProvider[0];
+
+    private final PointF point = new PointF();
+    private PointProvider[] providers = EMPTY;
+    private float[] coordinates = new float[0];
+    private boolean[] visibilities = new boolean[0];
+    private boolean[] cacheables = new boolean[0];
+    private boolean[] trackings = new boolean[0];
+    private int size;
+    private int trackingCount;
+    private int modCount;
+    private boolean stale;
+
+    /**
+     * sets the providers to be resolved, growing the buffers only when needed
+     */
+    void set(List<PointProvider> points) {
+        clear();
+        int count = points.size();
+        ensureCapacity(count);
+        for (int i = 0; i < count; i++) {
+            PointProvider provider = points.get(i);
+            providers[i] = provider;
+            cacheables[i] = provider instanceof AbstractPointProvider
+                    && ((AbstractPointProvider) provider).isCacheable();
+            trackings[i] = provider instanceof AbstractPointProvider
+                    && ((AbstractPointProvider) provider).isTracking();
+            if (trackings[i]) {
+                trackingCount++;
+            }
+        }
+        size = count;
+        stale = true;
+        modCount++;
+    }
+
+    /**
+     * copies the resolved positions of another buffer, without its providers
+     */
+    void copy(PointBuffer source) {
+        clear();
+        ensureCapacity(source.size);
+        System.arraycopy(source.coordinates, 0, coordinates, 0, source.size * 2);
+        System.arraycopy(source.visibilities, 0, visibilities, 0, source.size);
+        size = source.size;
+        modCount++;
+    }
+
+    /**
+     * sets the positions in between the ones of two buffers, matching their points by index.
+     * when the sizes differ, the points of the smaller buffer are spread over the larger one in order,
+     * so a point splits into several or several points merge into one.
+     * points which are not visible in the first buffer stay at their position in the second one.
+     *
+     * @param from     positions at fraction 0
+     * @param to       positions at fraction 1, which decides the visibility of the points
+     * @param fraction progress from 0 to 1
+     */
+    void interpolate(PointBuffer from, PointBuffer to, float fraction) {
+        clear();
+        int count = to.size > 0 ? Math.max(from.size, to.size) : 0;
+        ensureCapacity(count);
+        for (int i = 0; i < count; i++) {
+            int toIndex = i * to.size / count;
+            float x = to.getX(toIndex);
+            float y = to.getY(toIndex);
+            int fromIndex = from.size > 0 ? i * from.size / count : -1;
+            if (fromIndex >= 0 && from.visibilities[fromIndex]) {
+                x = from.getX(fromIndex) + (x - from.getX(fromIndex)) * fraction;
+                y = from.getY(fromIndex) + (y - from.getY(fromIndex)) * fraction;
+            }
+            coordinates[i * 2] = x;
+            coordinates[i * 2 + 1] = y;
+            visibilities[i] = to.visibilities[toIndex];
+        }
+        size = count;
+        modCount++;
+    }
+
+    private void ensureCapacity(int count) {
+        if (providers.length < count) {
+            providers = new PointProvider[count];
+            coordinates = new float[count * 2];
+            visibilities = new boolean[count];
+            cacheables = new boolean[count];
+            trackings = new boolean[count];
+        }
+    }
+
+    /**
+     * marks the cached positions as outdated, e.g. after a layout pass or a scroll
+     */
+    void invalidate() {
+        stale = true;
+    }
+
+    /**
+     * removes all the providers
+     */
+    void clear() {
+        for (int i = 0; i < size; i++) {
+            providers[i] = null;
+        }
+        size = 0;
+        trackingCount = 0;
+    }
+
+    /**
+     * resolves the visibility of every provider, and the current position of the ones which are not cached
+     */
+    void update() {
+        for (int i = 0; i < size; i++) {
+            PointProvider provider = providers[i];
+            if (provider == null) {
+                // copied or interpolated positions have nothing to resolve
+                continue;
+            }
+            boolean visible = provider.isVisible();
+            boolean shown = visible && !visibilities[i];
+            if (visibilities[i] != visible) {
+                visibilities[i] = visible;
+                modCount++;
+            }
+            // a point which shows up again may have moved while it was hidden
+            if (!visible || (cacheables[i] && !stale && !trackings[i] && !shown)) {
+                continue;
+            }
+            if (provider instanceof AbstractPointProvider) {
+                ((AbstractPointProvider) provider).getPoint(point);
+                store(i, point.x, point.y);
+            } else {
+                PointF pointF = provider.getPoint();
+                store(i, pointF.x, pointF.y);
+            }
+        }
+        stale = false;
+    }
+
+    private void store(int index, float x, float y) {
+        if (coordinates[index * 2] != x || coordinates[index * 2 + 1] != y) {
+            coordinates[index * 2] = x;
+            coordinates[index * 2 + 1] = y;
+            modCount++;
+        }
+    }
+
+    /**
+     * whether any provider follows a view which may move without a layout or scroll change
+     */
+    boolean hasTrackingPoints() {
+        return trackingCount > 0;
+    }
+
+    /**
+     * returns a counter which changes whenever a position or a visibility changes
+     */
+    int getModCount() {
+        return modCount;
+    }
+
+    int size() {
+        return size;
+    }
+
+    float getX(int index) {
+        return coordinates[index * 2];
+    }
+
+    float getY(int index) {
+        return coordinates[index * 2 + 1];
+    }
+
+    boolean isVisible(int index) {
+        return visibilities[index];
+    }
+}
@@ -0,0 +1,349 @@
+package com.takusemba.spotlight;
+
+import android.graphics.Canvas;
+import android.graphics.Matrix;
+import android.graphics.Paint;
+import android.graphics.Path;
+import android.graphics.RectF;
+import android.graphics.Region;
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+
+/**
+ * Shape of the spotlight trimmed around each point of a {@link Target}.
+ * The geometry is computed once when the Shape is created, and only scaled while animating,
+ * so drawing a frame never builds a new Path or RectF.
+ */
+public abstract class Shape {
+
+    /**
+     * scratch bounds reused while drawing, only touched on the UI thread
+     */
+    final RectF bounds = new RectF();
+    private final float halfWidth;
+    private final float halfHeight;
+
+    Shape(float halfWidth, float halfHeight) {
+        this.halfWidth = halfWidth;
+        this.halfHeight = halfHeight;
+    }
+
+    /**
+     * Creates a circle
+     *
+     * @param radius radius of the circle
+     * @return the circle Shape
+     */
+    public static Shape circle(float radius) {
+        checkPositive(radius, "radius");
+        return new Circle(radius);
+    }
+
+    /**
+     * Creates an oval centered on the point
+     *
+     * @param width  width of the oval
+     * @param height height of the oval
+     * @return the oval Shape
+     */
+    public static Shape oval(float width, float height) {
+        checkPositive(width, "width");
+        checkPositive(height, "height");
+        return new Oval(width, height);
+    }
+
+    /**
+     * Creates a rounded rectangle centered on the point
+     *
+     * @param width        width of the rectangle
+     * @param height       height of the rectangle
+     * @param cornerRadius radius of the corners
+     * @return the rounded rectangle Shape
+     */
+    public static Shape roundedRect(float width, float height, float cornerRadius) {
+        checkPositive(width, "width");
+        checkPositive(height, "height");
+        if (cornerRadius < 0) {
+            throw new IllegalArgumentException("cornerRadius must not be negative");
+        }
+        return new RoundedRect(width, height, cornerRadius);
+    }
+
+    /**
+     * Creates a Shape from any path. The path is copied, so changing it later has no effect.
+     *
+     * @param path path whose coordinates are relative to the point, (0, 0) being the point itself
+     * @return the path Shape
+     */
+    public static Shape path(@NonNull Path path) {
+        RectF pathBounds = new RectF();
+        path.computeBounds(pathBounds, true);
+        if (pathBounds.isEmpty()) {
+            throw new IllegalArgumentException("path must not be empty");
+        }
+        return new PathShape(new Path(path), pathBounds);
+    }
+
+    private static void checkPositive(float value, String name) {
+        if (value <= 0) {
+            throw new IllegalArgumentException(name + " must be greater than 0");
+        }
+    }
+
+    /**
+     * gets half of the width of this Shape at full scale
+     */
+    float getHalfWidth() {
+        return halfWidth;
+    }
+
+    /**
+     * gets half of the height of this Shape at full scale
+     */
+    float getHalfHeight() {
+        return halfHeight;
+    }
+
+    /**
+     * gets the largest distance from the point to the edge of this Shape at full scale
+     */
+    float getExtent() {
+        return (float) Math.hypot(halfWidth, halfHeight);
+    }
+
+    /**
+     * draws this Shape
+     *
+     * @param canvas the canvas to draw on
+     * @param x      x of the point
+     * @param y      y of the point
+     * @param scale  scale of this Shape, from 0 to 1
+     * @param paint  paint to draw with
+     */
+    abstract void draw(Canvas canvas, float x, float y, float scale, Paint paint);
+
+    /**
+     * adds the outline of this Shape to a path
+     *
+     * @param path  the path to add to
+     * @param x     x of the point
+     * @param y     y of the point
+     * @param scale scale of this Shape, from 0 to 1
+     */
+    abstract void addTo(Path path, float x, float y, float scale);
+
+    /**
+     * whether this Shape keeps its look when merged with others into one path.
+     * false for shapes relying on their own fill type, which the merged path can't keep.
+     */
+    boolean canBatch() {
+        return true;
+    }
+
+    /**
+     * whether a position relative to the point is inside this Shape
+     *
+     * @param dx    x of the position minus x of the point
+     * @param dy    y of the position minus y of the point
+     * @param scale scale of this Shape, from 0 to 1
+     */
+    abstract boolean contains(float dx, float dy, float scale);
+
+    /**
+     * draws this Shape on every visible point
+     *
+     * @param canvas the canvas to draw on
+     * @param points resolved positions of the points
+     * @param scale  scale of this Shape, from 0 to 1
+     * @param paint  paint to draw with
+     * @param batch  if not null, the shapes are merged into this path and drawn with a single call,
+     *               unless they can't be batched
+     */
+    final void drawAll(Canvas canvas, PointBuffer points, float scale, Paint paint, @Nullable Path batch) {
+        if (batch == null || !canBatch()) {
+            for (int i = 0, size = points.size(); i < size; i++) {
+                if (points.isVisible(i)) {
+                    draw(canvas, points.getX(i), points.getY(i), scale, paint);
+                }
+            }
+            return;
+        }
+        // every shape winds the same way, so overlapping shapes merge into one hole
+        batch.rewind();
+        batch.setFillType(Path.FillType.WINDING);
+        for (int i = 0, size = points.size(); i < size; i++) {
+            if (points.isVisible(i)) {
+                addTo(batch, points.getX(i), points.getY(i), scale);
+            }
+        }
+        canvas.drawPath(batch, paint);
+    }
+
+    /**
+     * sets the scratch bounds to this Shape centered on a point
+     */
+    final RectF scaledBounds(float x, float y, float scale) {
+        float halfWidth = this.halfWidth * scale;
+        float halfHeight = this.halfHeight * scale;
+        bounds.set(x - halfWidth, y - halfHeight, x + halfWidth, y + halfHeight);
+        return bounds;
+    }
+
+    private static final class Circle extends Shape {
+
+        private final float radius;
+
+        Circle(float radius) {
+            super(radius, radius);
+            this.radius = radius;
+        }
+
+        @Override
+        float getExtent() {
+            return radius;
+        }
+
+        @Override
+        void draw(Canvas canvas, float x, float y, float scale, Paint paint) {
+            canvas.drawCircle(x, y, radius * scale, paint);
+        }
+
+        @Override
+        void addTo(Path path, float x, float y, float scale) {
+            path.addCircle(x, y, radius * scale, Path.Direction.CW);
+        }
+
+        @Override
+        boolean contains(float dx, float dy, float scale) {
+            float r = radius * scale;
+            return dx * dx + dy * dy <= r * r;
+        }
+    }
+
+    private static final class Oval extends Shape {
+
+        Oval(float width, float height) {
+            super(width / 2, height / 2);
+        }
+
+        @Override
+        float getExtent() {
+            return Math.max(getHalfWidth(), getHalfHeight());
+        }
+
+        @Override
+        void draw(Canvas canvas, float x, float y, float scale, Paint paint) {
+            canvas.drawOval(scaledBounds(x, y, scale), paint);
+        }
+
+        @Override
+        void addTo(Path path, float x, float y, float scale) {
+            path.addOval(scaledBounds(x, y, scale), Path.Direction.CW);
+        }
+
+        @Override
+        boolean contains(float dx, float dy, float scale) {
+            float nx = dx / (getHalfWidth() * scale);
+            float ny = dy / (getHalfHeight() * scale);
+            return nx * nx + ny * ny <= 1f;
+        }
+    }
+
+    private static final class RoundedRect extends Shape {
+
+        private final float cornerRadius;
+
+        RoundedRect(float width, float height, float cornerRadius) {
+            super(width / 2, height / 2);
+            this.cornerRadius = Math.min(cornerRadius, Math.min(width, height) / 2);
+        }
+
+        @Override
+        void draw(Canvas canvas, float x, float y, float scale, Paint paint) {
+            float corner = cornerRadius * scale;
+            canvas.drawRoundRect(scaledBounds(x, y, scale), corner, corner, paint);
+        }
+
+        @Override
+        void addTo(Path path, float x, float y, float scale) {
+            float corner = cornerRadius * scale;
+            path.addRoundRect(scaledBounds(x, y, scale), corner, corner, Path.Direction.CW);
+        }
+
+        @Override
+        boolean contains(float dx, float dy, float scale) {
+            float halfWidth = getHalfWidth() * scale;
+            float halfHeight = getHalfHeight() * scale;
+            dx = Math.abs(dx);
+            dy = Math.abs(dy);
+            if (dx > halfWidth || dy > halfHeight) {
+                return false;
+            }
+            // distance into the corner square, which only contains the quarter circle
+            float corner = cornerRadius * scale;
+            float cx = dx - (halfWidth - corner);
+            float cy = dy - (halfHeight - corner);
+            return cx <= 0 || cy <= 0 || cx * cx + cy * cy <= corner * corner;
+        }
+    }
+
+    private static final class PathShape extends Shape {
+
+        private final Path path;
+        private final Matrix matrix = new Matrix();
+        private final float extent;
+        private Region region;
+
+        PathShape(Path path, RectF pathBounds) {
+            super(Math.max(Math.abs(pathBounds.left), Math.abs(pathBounds.right)),
+                    Math.max(Math.abs(pathBounds.top), Math.abs(pathBounds.bottom)));
+            this.path = path;
+            this.extent = (float) Math.hypot(getHalfWidth(), getHalfHeight());
+        }
+
+        @Override
+        float getExtent() {
+            return extent;
+        }
+
+        @Override
+        void draw(Canvas canvas, float x, float y, float scale, Paint paint) {
+            int count = canvas.save();
+            canvas.translate(x, y);
+            canvas.scale(scale, scale);
+            canvas.drawPath(path, paint);
+            canvas.restoreToCount(count);
+        }
+
+        @Override
+        boolean canBatch() {
+            return false;
+        }
+
+        /**
+         * adds this path with its fill type, so the path it's added to should not hold other shapes
+         */
+        @Override
+        void addTo(Path path, float x, float y, float scale) {
+            matrix.setScale(scale, scale);
+            matrix.postTranslate(x, y);
+            path.setFillType(this.path.getFillType());
+            path.addPath(this.path, matrix);
+        }
+
+        @Override
+        boolean contains(float dx, float dy, float scale) {
+            if (scale <= 0) {
+                return false;
+            }
+            if (region == null) {
+                // rasterized once at full scale, the first time a touch needs it
+                int halfWidth = (int) Math.ceil(getHalfWidth());
+                int halfHeight = (int) Math.ceil(getHalfHeight());
+                region = new Region();
+                region.setPath(path, new Region(-halfWidth, -halfHeight, halfWidth, halfHeight));
+            }
+            return region.contains(Math.round(dx / scale), Math.round(dy / scale));
+        }
+    }
+}
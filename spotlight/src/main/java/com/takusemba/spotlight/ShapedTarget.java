@@ -0,0 +1,15 @@
+package com.takusemba.spotlight;
+
+/**
+ * Target trimmed with a {@link Shape} instead of the circle of {@link #getRadius()}.
+ * Kept apart from {@link Target} so that existing implementations of it keep compiling.
+ */
+interface ShapedTarget extends Target {
+
+    /**
+     * gets the shape of this Target
+     *
+     * @return the shape of this Target, or null to use a circle of {@link #getRadius()}
+     */
+    Shape getShape();
+}
@@ -1,16 +1,22 @@
 package com.takusemba.spotlight;
 
 import android.app.Activity;
-import android.content.Context;
-import android.graphics.Point;
+import android.graphics.Canvas;
 import android.graphics.PointF;
+import android.support.annotation.IntDef;
 import android.support.annotation.NonNull;
+import android.support.v4.view.AsyncLayoutInflater;
+import android.text.StaticLayout;
+import android.text.TextPaint;
+import android.util.DisplayMetrics;
 import android.view.View;
-import android.view.ViewTreeObserver;
-import android.view.WindowManager;
-import android.widget.LinearLayout;
+import android.view.ViewGroup;
+import android.widget.FrameLayout;
 import android.widget.TextView;
 
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.ref.WeakReference;
 import java.util.List;
 
 /**
@@ -19,23 +25,114 @@ import java.util.List;
  * @author takusemba
  * @since 26/06/2017
  **/
-public class SimpleTarget implements Target {
+public class SimpleTarget implements ShapedTarget {
 
+    /**
+     * Places title and description above or below the spotlight, whichever has more space
+     */
+    public static final int PLACEMENT_AUTO = 0;
+    /**
+     * Places title and description above the spotlight
+     */
+    public static final int PLACEMENT_ABOVE = 1;
+    /**
+     * Places title and description below the spotlight
+     */
+    public static final int PLACEMENT_BELOW = 2;
+    /**
+     * Places title and description on the left of the spotlight
+     */
+    public static final int PLACEMENT_LEFT = 3;
+    /**
+     * Places title and description on the right of the spotlight
+     */
+    public static final int PLACEMENT_RIGHT = 4;
+
+    @IntDef({PLACEMENT_AUTO, PLACEMENT_ABOVE, PLACEMENT_BELOW, PLACEMENT_LEFT, PLACEMENT_RIGHT})
+    @Retention(RetentionPolicy.SOURCE)
+    public @interface Placement {
+    }
+
+    /**
+     * space between the spotlight, the text and the edges of the screen
+     */
+    private static final int MARGIN = 100;
+    /**
+     * least width of title and description on the left or right of the spotlight,
+     * below which they are placed above or below it instead
+     */
+    private static final int MIN_TEXT_WIDTH = 200;
+
+    private final PointF anchor = new PointF();
+    private final LazyView lazyView = new SimpleLazyView();
+    private final OverlayText overlayText = new SimpleOverlayText();
+    private WeakReference<Activity> contextWeakReference;
     private List<PointProvider> points;
     private float radius;
+    private Shape shape;
+    private String title;
+    private String description;
+    @Placement
+    private int placement;
+    @Placement
+    private int resolvedPlacement;
     private View view;
+    private boolean viewShared;
     private OnTargetStateChangedListener listener;
+    private boolean textPrecomputed;
+    private TextPaint titlePaint;
+    private TextPaint descriptionPaint;
+    private int spacing;
+    private StaticLayout titleLayout;
+    private StaticLayout descriptionLayout;
+    private int textLeft;
+    private float textTop;
 
     /**
      * Constructor
      */
-    private SimpleTarget(List<PointProvider> points, float radius, View view, OnTargetStateChangedListener listener) {
+    private SimpleTarget(Activity context, List<PointProvider> points, float radius, Shape shape,
+                         String title, String description, @Placement int placement,
+                         OnTargetStateChangedListener listener) {
+        this.contextWeakReference = new WeakReference<>(context);
         this.points = points;
         this.radius = radius;
-        this.view = view;
+        this.shape = shape;
+        this.title = title;
+        this.description = description;
+        this.placement = placement;
         this.listener = listener;
     }
 
+    /**
+     * lays out title and description ahead of time for the width they get on a screen-wide SpotlightView,
+     * and shows them with a {@link SpotlightTextView} instead of layout_spotlight
+     */
+    private void precomputeText(Activity context) {
+        DisplayMetrics metrics = context.getResources().getDisplayMetrics();
+        createTextPaints(metrics);
+        if (!points.isEmpty()) {
+            // resolved again when the view is measured, this only picks the width the layouts are cached for
+            resolvePlacement(metrics.widthPixels, metrics.heightPixels);
+        }
+        int width = getTextWidth(metrics.widthPixels);
+        SpotlightTextView.getLayout(title, titlePaint, width);
+        SpotlightTextView.getLayout(description, descriptionPaint, width);
+        textPrecomputed = true;
+    }
+
+    private void createTextPaints(DisplayMetrics metrics) {
+        if (titlePaint == null) {
+            titlePaint = SpotlightTextView.createTitlePaint(metrics);
+            descriptionPaint = SpotlightTextView.createDescriptionPaint(metrics);
+            spacing = SpotlightTextView.getSpacing(metrics);
+        }
+    }
+
+    private boolean isTextPrecomputed() {
+        return textPrecomputed;
+    }
+
     @Override
     public List<PointProvider> getPoints() {
         return points;
@@ -46,16 +143,244 @@ public class SimpleTarget implements Target {
         return radius;
     }
 
+    @Override
+    public Shape getShape() {
+        return shape;
+    }
+
+    /**
+     * inflates the view the first time it is requested, since Targets are built before they are shown.
+     * the view is then kept for the lifetime of this Target instead of being pooled,
+     * since the caller may have bound to it.
+     */
     @Override
     public View getView() {
+        viewShared = true;
+        if (view == null) {
+            view = isTextPrecomputed() ? createTextView() : bindView(inflateView());
+        }
+        return view;
+    }
+
+    /**
+     * gets the view of this Target as {@link Spotlight} creates, positions and releases it
+     */
+    LazyView getLazyView() {
+        return lazyView;
+    }
+
+    /**
+     * gets the text of this Target as {@link SpotlightView} draws it on the overlay
+     */
+    OverlayText getOverlayText() {
+        return overlayText;
+    }
+
+    private View inflateView() {
+        Activity context = contextWeakReference.get();
+        if (context == null) {
+            throw new RuntimeException("context is null");
+        }
+        return context.getLayoutInflater().inflate(R.layout.layout_spotlight, null);
+    }
+
+    private View createTextView() {
+        Activity context = contextWeakReference.get();
+        if (context == null) {
+            throw new RuntimeException("context is null");
+        }
+        SpotlightTextView textView = new SpotlightTextView(context, titlePaint, descriptionPaint);
+        textView.setLayoutParams(new FrameLayout.LayoutParams(ViewGroup.LayoutParams.MATCH_PARENT,
+                ViewGroup.LayoutParams.WRAP_CONTENT));
+        textView.setText(title, description);
+        return textView;
+    }
+
+    /**
+     * gets the view positioned next to the spotlight, which is the view itself when it draws the text
+     */
+    private View getContainer(View view) {
+        return isTextPrecomputed() ? view : view.findViewById(R.id.container);
+    }
+
+    /**
+     * sets the title and description of this Target to a new or recycled view
+     */
+    private View bindView(View view) {
+        ((TextView) view.findViewById(R.id.title)).setText(title);
+        ((TextView) view.findViewById(R.id.description)).setText(description);
         return view;
     }
 
+    /**
+     * reads the position of the first point and decides on which side of it the text goes
+     */
+    private void resolvePlacement(int width, int height) {
+        PointProvider point = points.get(0);
+        if (point instanceof AbstractPointProvider) {
+            ((AbstractPointProvider) point).getPoint(anchor);
+        } else {
+            anchor.set(point.getPoint());
+        }
+        resolvedPlacement = placement;
+        if ((resolvedPlacement == PLACEMENT_LEFT || resolvedPlacement == PLACEMENT_RIGHT)
+                && getTextWidth(width) < MIN_TEXT_WIDTH) {
+            // the spotlight is too close to the edge to leave room for the text next to it
+            resolvedPlacement = PLACEMENT_AUTO;
+        }
+        if (resolvedPlacement == PLACEMENT_AUTO) {
+            resolvedPlacement = anchor.y > height - anchor.y ? PLACEMENT_ABOVE : PLACEMENT_BELOW;
+        }
+    }
+
+    /**
+     * gets the width the text wraps at, between its left edge and its right margin
+     */
+    private int getTextWidth(int width) {
+        return width - getTextLeft() - getTextRightMargin(width);
+    }
+
+    /**
+     * gets the left edge of the text, which is right of the spotlight when placed on its right
+     */
+    private int getTextLeft() {
+        if (resolvedPlacement == PLACEMENT_RIGHT) {
+            return Math.max(MARGIN, (int) (anchor.x + shape.getHalfWidth() + MARGIN));
+        }
+        return MARGIN;
+    }
+
+    /**
+     * gets the space right of the text, which holds the spotlight when placed on its left
+     */
+    private int getTextRightMargin(int width) {
+        if (resolvedPlacement == PLACEMENT_LEFT) {
+            return Math.max(MARGIN, width - (int) (anchor.x - shape.getHalfWidth() - MARGIN));
+        }
+        return MARGIN;
+    }
+
+    /**
+     * gets the top edge of the text once its height is known
+     */
+    private float getTextTop(int height, int textHeight) {
+        switch (resolvedPlacement) {
+            case PLACEMENT_ABOVE:
+                return anchor.y - shape.getHalfHeight() - MARGIN - textHeight;
+            case PLACEMENT_BELOW:
+                return anchor.y + shape.getHalfHeight() + MARGIN;
+            default:
+                float y = anchor.y - textHeight / 2f;
+                return Math.max(0, Math.min(y, height - textHeight));
+        }
+    }
+
     @Override
     public OnTargetStateChangedListener getListener() {
         return listener;
     }
 
+    private final class SimpleLazyView extends LazyView {
+
+        @Override
+        View obtainView(TargetViewPool pool) {
+            if (view == null && isTextPrecomputed()) {
+                view = createTextView();
+            } else if (view == null) {
+                View pooled = pool.acquire(R.layout.layout_spotlight);
+                view = bindView(pooled != null ? pooled : inflateView());
+            }
+            return view;
+        }
+
+        @Override
+        void prepareView(TargetViewPool pool, AsyncLayoutInflater inflater, final Runnable onPrepared) {
+            if (view == null && isTextPrecomputed()) {
+                view = createTextView();
+            } else if (view == null) {
+                View pooled = pool.acquire(R.layout.layout_spotlight);
+                if (pooled == null) {
+                    inflater.inflate(R.layout.layout_spotlight, null,
+                            new AsyncLayoutInflater.OnInflateFinishedListener() {
+                                @Override
+                                public void onInflateFinished(@NonNull View inflated, int resid, ViewGroup parent) {
+                                    // the view may have been inflated on the main thread in the meantime
+                                    if (view == null) {
+                                        view = bindView(inflated);
+                                    }
+                                    onPrepared.run();
+                                }
+                            });
+                    return;
+                }
+                view = bindView(pooled);
+            }
+            onPrepared.run();
+        }
+
+        @Override
+        void releaseView(TargetViewPool pool) {
+            if (viewShared) {
+                return;
+            }
+            if (isTextPrecomputed()) {
+                // a single view is cheaper to create again than to keep
+                view = null;
+            } else if (view != null) {
+                pool.release(R.layout.layout_spotlight, view);
+                view = null;
+            }
+        }
+
+        /**
+         * constrains the width of title and description to the side of the spotlight they are placed on
+         */
+        @Override
+        void onPreMeasure(View view, int width, int height) {
+            resolvePlacement(width, height);
+            // SpotlightView measures the view right after, so the margins are set without requesting another layout
+            ViewGroup.MarginLayoutParams params = (ViewGroup.MarginLayoutParams) view.getLayoutParams();
+            params.leftMargin = getTextLeft();
+            params.rightMargin = getTextRightMargin(width);
+        }
+
+        /**
+         * places title and description next to the spotlight once their size is known
+         */
+        @Override
+        void onPostMeasure(View view, int width, int height) {
+            View container = getContainer(view);
+            container.setTranslationY(getTextTop(height, container.getMeasuredHeight()));
+        }
+    }
+
+    private final class SimpleOverlayText extends OverlayText {
+
+        /**
+         * lays out title and description with cached layouts, to be drawn on the overlay without any view
+         */
+        @Override
+        void layoutOnOverlay(@NonNull DisplayMetrics metrics, int width, int height) {
+            createTextPaints(metrics);
+            resolvePlacement(width, height);
+            textLeft = getTextLeft();
+            int textWidth = getTextWidth(width);
+            titleLayout = SpotlightTextView.getLayout(title, titlePaint, textWidth);
+            descriptionLayout = SpotlightTextView.getLayout(description, descriptionPaint, textWidth);
+            textTop = getTextTop(height, SpotlightTextView.getTextHeight(titleLayout, descriptionLayout, spacing));
+        }
+
+        @Override
+        CharSequence getAccessibilityText() {
+            return SpotlightTextView.getAccessibilityText(title, description);
+        }
+
+        @Override
+        void drawOnOverlay(@NonNull Canvas canvas) {
+            SpotlightTextView.drawText(canvas, textLeft, textTop, titleLayout, descriptionLayout, spacing);
+        }
+    }
+
     /**
      * Builder class which makes it easier to create {@link SimpleTarget}
      */
@@ -66,11 +391,11 @@ public class SimpleTarget implements Target {
             return this;
         }
 
-        private static final int ABOVE_SPOTLIGHT = 0;
-        private static final int BELOW_SPOTLIGHT = 1;
-
         private String title;
         private String description;
+        @Placement
+        private int placement = PLACEMENT_AUTO;
+        private boolean precomputeText;
 
         /**
          * Constructor
@@ -101,6 +426,29 @@ public class SimpleTarget implements Target {
             return this;
         }
 
+        /**
+         * Set where the title and description are placed around the spotlight
+         *
+         * @param placement one of the PLACEMENT_* constants, {@link #PLACEMENT_AUTO} by default
+         * @return This Builder
+         */
+        public Builder setPlacement(@Placement int placement) {
+            this.placement = placement;
+            return this;
+        }
+
+        /**
+         * Set whether title and description are laid out when the Target is built, which can be done
+         * on a background thread, and drawn by a single view instead of two TextViews
+         *
+         * @param precomputeText true to lay out the text ahead of time
+         * @return This Builder
+         */
+        public Builder setPrecomputeText(boolean precomputeText) {
+            this.precomputeText = precomputeText;
+            return this;
+        }
+
         /**
          * Create the {@link SimpleTarget}
          *
@@ -111,48 +459,12 @@ public class SimpleTarget implements Target {
             if (getContext() == null) {
                 throw new RuntimeException("context is null");
             }
-            View view = getContext().getLayoutInflater().inflate(R.layout.layout_spotlight, null);
-            ((TextView) view.findViewById(R.id.title)).setText(title);
-            ((TextView) view.findViewById(R.id.description)).setText(description);
-            calculatePosition(points.get(0).getPoint(), radius, view);
-            return new SimpleTarget(points, radius, view, listener);
-        }
-
-        /**
-         * calculate the position of title and description based off of where the spotlight reveals
-         */
-        private void calculatePosition(final PointF point, final float radius, View spotlightView) {
-            float[] areas = new float[2];
-            Point screenSize = new Point();
-            ((WindowManager) spotlightView.getContext()
-                    .getSystemService(Context.WINDOW_SERVICE)).getDefaultDisplay().getSize(screenSize);
-
-            areas[ABOVE_SPOTLIGHT] = point.y / screenSize.y;
-            areas[BELOW_SPOTLIGHT] = (screenSize.y - point.y) / screenSize.y;
-
-            int largest;
-            if (areas[ABOVE_SPOTLIGHT] > areas[BELOW_SPOTLIGHT]) {
-                largest = ABOVE_SPOTLIGHT;
-            } else {
-                largest = BELOW_SPOTLIGHT;
-            }
-
-            final LinearLayout layout = ((LinearLayout) spotlightView.findViewById(R.id.container));
-            layout.setPadding(100, 0, 100, 0);
-            switch (largest) {
-                case ABOVE_SPOTLIGHT:
-                    spotlightView.getViewTreeObserver()
-                            .addOnGlobalLayoutListener(new ViewTreeObserver.OnGlobalLayoutListener() {
-                                @Override
-                                public void onGlobalLayout() {
-                                    layout.setY(point.y - radius - 100 - layout.getHeight());
-                                }
-                            });
-                    break;
-                case BELOW_SPOTLIGHT:
-                    layout.setY((int) (point.y + radius + 100));
-                    break;
+            SimpleTarget target = new SimpleTarget(getContext(), points, radius, getShape(), title, description,
+                    placement, listener);
+            if (precomputeText) {
+                target.precomputeText(getContext());
             }
+            return target;
         }
     }
-}
\ No newline at end of file
+}
@@ -1,20 +1,23 @@
 package com.takusemba.spotlight;
 
-import android.animation.Animator;
-import android.animation.ObjectAnimator;
 import android.animation.TimeInterpolator;
 import android.app.Activity;
 import android.content.Context;
+import android.os.Looper;
+import android.os.MessageQueue;
 import android.support.annotation.ColorInt;
+import android.support.annotation.IntDef;
 import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+import android.support.v4.view.ViewCompat;
 import android.view.View;
 import android.view.ViewGroup;
 import android.view.animation.DecelerateInterpolator;
 import android.widget.FrameLayout;
 
-import java.util.ArrayList;
-import java.util.Arrays;
-import java.util.List;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.ref.WeakReference;
 
 /**
  * Spotlight
@@ -24,6 +27,57 @@ import java.util.List;
  **/
 public class Spotlight {
 
+    /**
+     * Clears the spotlights with an xfermode on a hardware layer of the size of the screen
+     */
+    public static final int RENDERER_XFERMODE = 0;
+    /**
+     * Clips the spotlights out of the background without an offscreen layer
+     */
+    public static final int RENDERER_CLIP_PATH = 1;
+    /**
+     * Clips while animating, without an offscreen layer, and draws a cached bitmap once a spotlight finished opening.
+     * Settled frames are cheaper to redraw, at the cost of an extra ARGB_8888 bitmap of the size of the screen.
+     */
+    public static final int RENDERER_MASK_BITMAP = 2;
+
+    @IntDef({RENDERER_XFERMODE, RENDERER_CLIP_PATH, RENDERER_MASK_BITMAP})
+    @Retention(RetentionPolicy.SOURCE)
+    public @interface Renderer {
+    }
+
+    /**
+     * Closes the spotlight of a Target before opening the one of the next Target
+     */
+    public static final int TRANSITION_COLLAPSE = 0;
+    /**
+     * Moves and resizes the spotlight of a Target into the one of the next Target in a single animation
+     */
+    public static final int TRANSITION_MORPH = 1;
+
+    @IntDef({TRANSITION_COLLAPSE, TRANSITION_MORPH})
+    @Retention(RetentionPolicy.SOURCE)
+    public @interface Transition {
+    }
+
+    /**
+     * Closes the Target wherever the overlay is clicked
+     */
+    public static final int TOUCH_ANYWHERE = 0;
+    /**
+     * Closes the Target when a hole is clicked, and notifies clicks outside of the holes
+     */
+    public static final int TOUCH_HOLE_CLICK = 1;
+    /**
+     * Lets touches in a hole through to the views below, and notifies clicks outside of the holes
+     */
+    public static final int TOUCH_HOLE_PASS_THROUGH = 2;
+
+    @IntDef({TOUCH_ANYWHERE, TOUCH_HOLE_CLICK, TOUCH_HOLE_PASS_THROUGH})
+    @Retention(RetentionPolicy.SOURCE)
+    public @interface TouchMode {
+    }
+
     /**
      * Duration of Spotlight emerging
      */
@@ -38,11 +92,32 @@ public class Spotlight {
 
     private long duration = DEFAULT_DURATION;
     private boolean closeAfterEnd = true;
+    private boolean invalidateDirtyRegion = false;
+    private int viewPoolSize = TargetViewPool.DEFAULT_MAX_SIZE;
+    private boolean batchShapes = false;
+    @Renderer
+    private int renderer = RENDERER_XFERMODE;
+    @Transition
+    private int transition = TRANSITION_COLLAPSE;
+    @TouchMode
+    private int touchMode = TOUCH_ANYWHERE;
     private int backgroundColor = -1;
     private TimeInterpolator animation = DEFAULT_ANIMATION;
     private OnSpotlightStartedListener startedListener;
     private OnSpotlightEndedListener endedListener;
     private OnSpotlightCloseListener closeListener;
+    private OnSpotlightMetricsListener metricsListener;
+    private OnSpotlightOutsideClickListener outsideClickListener;
+    private TargetSequence sequence;
+    private WeakReference<SpotlightView> spotlightViewWeakReference;
+    private SpotlightSession session;
+    private String tourId;
+    private TourProgressStore progressStore;
+    private boolean prepareAsync = false;
+    private boolean drawTextOnOverlay = false;
+    private TargetPreparation preparation;
+    private MessageQueue.IdleHandler pendingPreparation;
+    private Shape circle;
 
     private Spotlight() {
     }
@@ -83,6 +158,125 @@ public class Spotlight {
         return this;
     }
 
+    /**
+     * sets how the background is drawn and the spotlights are trimmed
+     *
+     * @param renderer one of {@link #RENDERER_XFERMODE}, {@link #RENDERER_CLIP_PATH}, {@link #RENDERER_MASK_BITMAP}
+     * @return This Spotlight
+     */
+    public Spotlight setRenderer(@Renderer int renderer) {
+        this.renderer = renderer;
+        return this;
+    }
+
+    /**
+     * sets how the spotlight moves from a Target to the next one.
+     * the first Target still opens, and the last one still closes, from nothing.
+     *
+     * @param transition one of {@link #TRANSITION_COLLAPSE}, {@link #TRANSITION_MORPH}
+     * @return This Spotlight
+     */
+    public Spotlight setTransition(@Transition int transition) {
+        this.transition = transition;
+        return this;
+    }
+
+    /**
+     * sets the id under which the progress of this tour is remembered in the {@link TourProgressStore}.
+     * Targets which were already shown until their end are skipped the next time the tour is started,
+     * unless they are shown explicitly with {@link #jumpTo(int)}. The tour is completed once its last Target
+     * closes, but not when it's ended early with {@link #jumpTo(int)}. Starting a completed tour doesn't show
+     * anything nor call the listeners.
+     *
+     * @param tourId id of the tour, or null not to remember the progress
+     * @return This Spotlight
+     */
+    public Spotlight setTourId(@Nullable String tourId) {
+        this.tourId = tourId;
+        return this;
+    }
+
+    /**
+     * sets whether the views of the Targets are inflated ahead of time: the first one while the Spotlight fades in,
+     * and the next one while a Target is shown. the first Target waits for its view if it is not ready
+     * when the fade in ends. views are inflated on a background thread, except the layouts of CustomTargets
+     * when the Activity has a LayoutInflater factory, e.g. with AppCompat, which are inflated
+     * when the main thread is idle.
+     * Targets themselves can be built in the background with {@code buildAsync} of their builders.
+     *
+     * @param prepareAsync true to inflate the views of the Targets in the background
+     * @return This Spotlight
+     */
+    public Spotlight setPrepareAsync(boolean prepareAsync) {
+        this.prepareAsync = prepareAsync;
+        return this;
+    }
+
+    /**
+     * sets whether the title and description of {@link SimpleTarget}s are drawn directly on the overlay
+     * instead of by child views, so that showing a Target adds no view and triggers no layout pass.
+     * other Targets still show their views.
+     *
+     * @param drawTextOnOverlay true to draw the text of SimpleTargets on the overlay
+     * @return This Spotlight
+     */
+    public Spotlight setDrawTextOnOverlay(boolean drawTextOnOverlay) {
+        this.drawTextOnOverlay = drawTextOnOverlay;
+        return this;
+    }
+
+    /**
+     * sets how touches on the overlay are handled depending on whether they land in a hole
+     *
+     * @param touchMode one of {@link #TOUCH_ANYWHERE}, {@link #TOUCH_HOLE_CLICK}, {@link #TOUCH_HOLE_PASS_THROUGH}
+     * @return This Spotlight
+     */
+    public Spotlight setTouchMode(@TouchMode int touchMode) {
+        this.touchMode = touchMode;
+        return this;
+    }
+
+    /**
+     * sets whether the spotlights of all the points of a Target are merged into one path
+     * and drawn with a single call, which is faster for Targets with many points
+     *
+     * @param batchShapes true to draw the spotlights at once
+     * @return This Spotlight
+     */
+    public Spotlight setBatchShapes(boolean batchShapes) {
+        this.batchShapes = batchShapes;
+        return this;
+    }
+
+    /**
+     * sets how many inflated views of the same layout are kept to be reused by the following Targets
+     *
+     * @param viewPoolSize max number of pooled views for each layout, 0 disables pooling
+     * @return This Spotlight
+     */
+    public Spotlight setViewPoolSize(int viewPoolSize) {
+        if (viewPoolSize < 0) {
+            throw new IllegalArgumentException("viewPoolSize must not be negative");
+        }
+        this.viewPoolSize = viewPoolSize;
+        return this;
+    }
+
+    /**
+     * sets whether animation frames redraw only the area around the spotlight instead of the whole screen.
+     * falls back to redrawing the whole screen when disabled, which is the default.
+     * only helps when the window is drawn in software, or below API 21: from API 21 hardware accelerated
+     * windows always redraw the whole view, and the option is then ignored. it is also ignored while the text of
+     * a Target is drawn on the overlay, see {@link #setDrawTextOnOverlay(boolean)}.
+     *
+     * @param invalidateDirtyRegion true to redraw only the area which changed
+     * @return This Spotlight
+     */
+    public Spotlight setInvalidateDirtyRegion(boolean invalidateDirtyRegion) {
+        this.invalidateDirtyRegion = invalidateDirtyRegion;
+        return this;
+    }
+
     /**
      * Sets Spotlight start Listener to Spotlight
      *
@@ -111,43 +305,269 @@ public class Spotlight {
         return this;
     }
 
+    /**
+     * Sets the Listener of clicks outside of the holes, which are only told apart
+     * from the ones in the holes when the touch mode is not {@link #TOUCH_ANYWHERE}
+     *
+     * @param listener OnSpotlightOutsideClickListener of Spotlight
+     * @return This Spotlight
+     */
+    public Spotlight setOnSpotlightOutsideClickListener(@Nullable OnSpotlightOutsideClickListener listener) {
+        outsideClickListener = listener;
+        return this;
+    }
+
+    /**
+     * Sets Spotlight metrics Listener to Spotlight
+     * Frame timings are only collected while a listener is set
+     *
+     * @param listener OnSpotlightMetricsListener of Spotlight, or null to stop collecting
+     * @return This Spotlight
+     */
+    public Spotlight setOnSpotlightMetricsListener(@Nullable OnSpotlightMetricsListener listener) {
+        metricsListener = listener;
+        return this;
+    }
+
+    /**
+     * Attaches an invisible {@link SpotlightView} to the Activity once its main thread is idle,
+     * and creates the view of the first Target, so that {@link #start(Activity, Target[])}
+     * only has to make it visible. Call it with the same Targets before starting.
+     * The invisible view stays attached until the Spotlight is started or {@link #cancelPrepare(Activity)} is called.
+     *
+     * @param activity Activity the Spotlight will be shown on
+     * @param targets  Targets which will be passed to start
+     */
+    public <T extends Target> void prepare(@NonNull Activity activity, @NonNull final T... targets) {
+        final WeakReference<Activity> activityWeakReference = new WeakReference<>(activity);
+        cancelPendingPreparation();
+        pendingPreparation = new MessageQueue.IdleHandler() {
+            @Override
+            public boolean queueIdle() {
+                pendingPreparation = null;
+                Activity activity = activityWeakReference.get();
+                if (activity == null || activity.isFinishing()
+                        || activity.getWindow().getDecorView().findViewById(R.id.tutorial_container) != null) {
+                    return false;
+                }
+                SpotlightView spotlightView = createSpotlightView(activity);
+                spotlightView.setId(R.id.tutorial_container);
+                spotlightView.prepare();
+                if (targets.length > 0 && !(drawTextOnOverlay && OverlayText.of(targets[0]) != null)) {
+                    LazyView lazyView = LazyView.of(targets[0]);
+                    if (lazyView != null) {
+                        lazyView.obtainView(spotlightView.getViewPool());
+                    } else {
+                        targets[0].getView();
+                    }
+                }
+                return false;
+            }
+        };
+        Looper.myQueue().addIdleHandler(pendingPreparation);
+    }
+
+    /**
+     * Detaches the view attached by {@link #prepare(Activity, Target[])} when the Spotlight won't be started,
+     * or keeps it from being attached if the main thread was not idle yet
+     *
+     * @param activity Activity passed to prepare
+     */
+    public void cancelPrepare(@NonNull Activity activity) {
+        cancelPendingPreparation();
+        SpotlightView spotlightView = activity.getWindow().getDecorView().findViewById(R.id.tutorial_container);
+        if (spotlightView != null && spotlightView.isPrepared()) {
+            spotlightView.releaseCaches();
+            ((ViewGroup) activity.getWindow().getDecorView()).removeView(spotlightView);
+        }
+    }
+
+    private void cancelPendingPreparation() {
+        if (pendingPreparation != null) {
+            Looper.myQueue().removeIdleHandler(pendingPreparation);
+            pendingPreparation = null;
+        }
+    }
+
     /**
      * Shows {@link SpotlightView}
+     *
+     * @return the session following the lifecycle of the Activity until the Spotlight ends
      */
-    public <T extends Target> void start(@NonNull Activity activity, @NonNull T... targets) {
+    public <T extends Target> SpotlightSession start(@NonNull Activity activity, @NonNull T... targets) {
+        cancelPendingPreparation();
         SpotlightView spotlightView = activity.getWindow().getDecorView().findViewById(R.id.tutorial_container);
+        progressStore = tourId != null ? TourProgressStore.get(activity) : null;
+        TargetSequence targetSequence = new TargetSequence(targets);
+        targetSequence.setSkipped(progressStore != null ? progressStore.getCompletedTargets(tourId) : null);
+        boolean shown = spotlightView != null && !spotlightView.isPrepared();
+        if (!shown && progressStore != null && progressStore.isLoaded() && isSkipped(targetSequence)) {
+            // the tour was already completed, so no overlay is added, not even for a frame
+            skipCompletedTour(spotlightView);
+            return SpotlightSession.ended();
+        }
         boolean firstStart = false;
+        boolean reused = false;
         if (spotlightView == null) {
             firstStart = true;
             spotlightView = createSpotlightView(activity);
             spotlightView.setId(R.id.tutorial_container);
+        } else if (spotlightView.isPrepared()) {
+            firstStart = true;
+            reused = true;
+            spotlightView.show();
+        } else if (spotlightView.isFadingOut()) {
+            // fades the previous Spotlight back in instead of letting it remove the view,
+            // so its end is notified here since it won't be hidden
+            spotlightView.endFadeOut();
+            firstStart = true;
+            reused = true;
+        }
+        SpotlightView previousView = spotlightViewWeakReference != null ? spotlightViewWeakReference.get() : null;
+        if (sequence != null && sequence.isShowing() && previousView != null) {
+            // the listener is replaced below, so the Target being shown or collapsed is ended here
+            endTarget(sequence, previousView);
+        }
+        sequence = targetSequence;
+        if (!shown && progressStore != null && !progressStore.isLoaded()) {
+            // hidden from touches until it's known whether the tour was already completed
+            spotlightView.setVisibility(View.INVISIBLE);
+        }
+        spotlightViewWeakReference = new WeakReference<>(spotlightView);
+        endSession();
+        session = new SpotlightSession(activity, spotlightView);
+        setUpSpotlightView(activity, spotlightView, sequence);
+        if (preparation != null) {
+            preparation.cancel();
+        }
+        preparation = prepareAsync
+                ? new TargetPreparation(activity, sequence, spotlightView.getViewPool(), drawTextOnOverlay) : null;
+        if (reused && ViewCompat.isLaidOut(spotlightView)) {
+            // a prepared or fading view is already attached and measured, so there is nothing to wait for
+            startSpotlight(sequence, true, spotlightView);
+        } else {
+            final boolean start = firstStart;
+            final SpotlightView view = spotlightView;
+            final TargetSequence startedSequence = sequence;
+            spotlightView.post(new Runnable() {
+                @Override
+                public void run() {
+                    startSpotlight(startedSequence, start, view);
+                }
+            });
+        }
+        return session;
+    }
+
+    /**
+     * closes the current Target and shows the next one
+     */
+    public void next() {
+        if (sequence != null) {
+            // moving on from the last Target completes the tour, unlike jumping to the end
+            sequence.setNextFollowing();
+            closeCurrentTarget();
         }
-        setUpSpotlightView(activity, spotlightView, firstStart, new ArrayList<>(Arrays.asList(targets)));
     }
 
-    private <T extends Target> void setUpSpotlightView(final Context context,
-                                                       final SpotlightView spotlightView,
-                                                       final boolean firstStart,
-                                                       final @NonNull List<T> targets) {
+    /**
+     * closes the current Target and shows the previous one
+     */
+    public void previous() {
+        if (sequence != null && sequence.index() > 0) {
+            jumpTo(sequence.index() - 1);
+        }
+    }
+
+    /**
+     * closes the current Target and shows the Target at the given position.
+     * passing the number of Targets finishes the Spotlight, without completing its tour.
+     * does nothing once the Spotlight finished, like {@link #next()}, {@link #previous()} and {@link #addTargets}.
+     *
+     * @param index position of the Target in the running Spotlight
+     */
+    public void jumpTo(int index) {
+        if (sequence == null) {
+            return;
+        }
+        sequence.setNext(index);
+        closeCurrentTarget();
+    }
+
+    /**
+     * closes the Target being shown, unless it is already closing, so that the next one set in the sequence shows up
+     */
+    private void closeCurrentTarget() {
+        SpotlightView spotlightView = spotlightViewWeakReference.get();
+        if (spotlightView != null && sequence.isShowing() && !spotlightView.isTurningDown()) {
+            finishTarget(sequence, spotlightView);
+        }
+    }
+
+    /**
+     * appends Targets to the running Spotlight
+     *
+     * @param targets Targets shown after the ones already added
+     */
+    public <T extends Target> void addTargets(@NonNull T... targets) {
+        if (sequence != null) {
+            sequence.append(targets);
+        }
+    }
+
+    private void setUpSpotlightView(final Context context,
+                                    final SpotlightView spotlightView,
+                                    final @NonNull TargetSequence sequence) {
+        spotlightView.setRenderer(createRenderer(renderer));
+        spotlightView.setInvalidateDirtyRegion(invalidateDirtyRegion);
+        spotlightView.setBatchShapes(batchShapes);
+        spotlightView.setTouchMode(touchMode);
+        spotlightView.getViewPool().setMaxSize(viewPoolSize);
+        spotlightView.setMetricsEnabled(metricsListener != null);
         spotlightView.setOnSpotlightStateChangedListener(new SpotlightView.OnSpotlightStateChangedListener() {
+            @Override
+            public void onSpotlightShown() {
+                startFirstTarget(sequence, spotlightView);
+            }
+
             @Override
             public void onTargetClosed() {
-                if (!targets.isEmpty()) {
-                    Target target = targets.remove(0);
-                    if (target.getListener() != null) {
-                        target.getListener().onEnded(target);
-                    }
-                    if (!targets.isEmpty()) {
-                        startTarget(targets, spotlightView);
-                    } else {
-                        finishSpotlight(context, spotlightView);
+                // a collapse started by a previous start ends no Target of this one
+                if (!sequence.isShowing() || !endTarget(sequence, spotlightView)) {
+                    return;
+                }
+                if (sequence.advance()) {
+                    startTarget(sequence, spotlightView);
+                } else {
+                    if (!sequence.isJumpedToEnd()) {
+                        completeTour();
                     }
+                    finishSpotlight(spotlightView);
                 }
             }
 
             @Override
             public void onTargetClicked() {
-                finishTarget(targets, spotlightView);
+                finishTarget(sequence, spotlightView);
+            }
+
+            @Override
+            public void onOutsideClicked() {
+                if (outsideClickListener != null) outsideClickListener.onOutsideClicked();
+            }
+
+            @Override
+            public void onSpotlightHidden() {
+                final View decorView = ((Activity) context).getWindow().getDecorView();
+                ((ViewGroup) decorView).removeView(spotlightView);
+                endSession();
+                if (endedListener != null) endedListener.onEnded(true);
+            }
+
+            @Override
+            public void onSpotlightReplaced() {
+                endSession();
+                if (endedListener != null) endedListener.onEnded(true);
             }
         });
         spotlightView.setOnSpotlightCloseListener(new OnSpotlightCloseListener() {
@@ -156,12 +576,6 @@ public class Spotlight {
                 closeListener.onClosed();
             }
         });
-        spotlightView.post(new Runnable() {
-            @Override
-            public void run() {
-                startSpotlight(targets, firstStart, spotlightView);
-            }
-        });
     }
 
     /**
@@ -179,114 +593,237 @@ public class Spotlight {
         }
         spotlightView.setLayoutParams(new FrameLayout.LayoutParams(ViewGroup.LayoutParams.MATCH_PARENT,
                 ViewGroup.LayoutParams.MATCH_PARENT));
+        // transparent until it fades in
+        spotlightView.setAlpha(0f);
         ((ViewGroup) decorView).addView(spotlightView);
         return spotlightView;
     }
 
     /**
-     * show Target
+     * Creates the renderer of the spotlight view
      */
-    @SuppressWarnings("unchecked")
-    private <T extends Target> void startTarget(@NonNull List<T> targets, SpotlightView spotlightView) {
-        if (!targets.isEmpty()) {
-            Target target = targets.get(0);
-            removeTutorialView(spotlightView);
-            View view = target.getView();
-            view.setId(R.id.tutorial_info);
-            spotlightView.addView(view);
-            spotlightView.turnUp(target.getPoints(), target.getRadius(), duration, animation);
-            if (target.getListener() != null) target.getListener().onStarted(target);
+    private static SpotlightRenderer createRenderer(@Renderer int renderer) {
+        switch (renderer) {
+            case RENDERER_CLIP_PATH:
+                return new ClipPathRenderer();
+            case RENDERER_MASK_BITMAP:
+                return new MaskBitmapRenderer();
+            case RENDERER_XFERMODE:
+            default:
+                return new XfermodeRenderer();
         }
     }
 
-    private void removeTutorialView(SpotlightView spotlightView) {
-        for (int i = 0; i < spotlightView.getChildCount(); i++) {
-            View view = spotlightView.getChildAt(i);
-            if (view.getId() == R.id.tutorial_info) {
-                spotlightView.removeView(view);
-                break;
+    /**
+     * show the first Target which was not completed yet
+     */
+    private void startFirstTarget(@NonNull final TargetSequence sequence, final SpotlightView spotlightView) {
+        if (!sequence.skipToFirst()) {
+            if (!sequence.isJumpedToEnd()) {
+                completeTour();
             }
+            finishSpotlight(spotlightView);
+        } else if (preparation != null) {
+            preparation.runWhenReady(sequence.index(), new Runnable() {
+                @Override
+                public void run() {
+                    startTarget(sequence, spotlightView);
+                }
+            });
+        } else {
+            startTarget(sequence, spotlightView);
         }
     }
 
     /**
-     * show Spotlight
+     * show Target
      */
-    private <T extends Target> void startSpotlight(@NonNull final List<T> targets, boolean firstStart, final SpotlightView spotlightView) {
-        if (firstStart) {
-            ObjectAnimator objectAnimator = ObjectAnimator.ofFloat(spotlightView, "alpha", 0f, 1f);
-            objectAnimator.setDuration(START_SPOTLIGHT_DURATION);
-            objectAnimator.addListener(new Animator.AnimatorListener() {
-                @Override
-                public void onAnimationStart(Animator animation) {
-                    if (startedListener != null) startedListener.onStarted();
-                }
-
-                @Override
-                public void onAnimationEnd(Animator animation) {
-                    startTarget(targets, spotlightView);
-                }
-
-                @Override
-                public void onAnimationCancel(Animator animation) {
+    private void startTarget(@NonNull TargetSequence sequence, SpotlightView spotlightView) {
+        Target target = sequence.current();
+        if (target != null) {
+            sequence.setShowing(true);
+            OverlayText overlayText = drawTextOnOverlay ? OverlayText.of(target) : null;
+            LazyView lazyView = overlayText == null ? LazyView.of(target) : null;
+            View view = null;
+            if (lazyView != null) {
+                view = lazyView.obtainView(spotlightView.getViewPool());
+            } else if (overlayText == null) {
+                view = target.getView();
+            }
+            if (view != null) {
+                view.setId(R.id.tutorial_info);
+            }
+            spotlightView.setTutorialView(view, lazyView);
+            spotlightView.setOverlayText(overlayText);
+            spotlightView.beginMetrics();
+            spotlightView.turnUp(target.getPoints(), getShape(target), duration, animation);
+            if (preparation != null) {
+                preparation.prepareFrom(sequence.index());
+            }
+            if (target.getListener() != null) target.getListener().onStarted(target);
+        }
+    }
 
-                }
+    /**
+     * gets the shape of a Target, falling back to a circle of its radius for Targets without one
+     *
+     * @return the shape, or null to draw no hole when the Target has neither a shape nor a positive radius
+     */
+    @Nullable
+    private Shape getShape(Target target) {
+        Shape shape = target instanceof ShapedTarget ? ((ShapedTarget) target).getShape() : null;
+        if (shape != null) {
+            return shape;
+        }
+        float radius = target.getRadius();
+        if (radius <= 0) {
+            return null;
+        }
+        if (circle == null || circle.getExtent() != radius) {
+            // Targets usually share their radius, so the circle is only created again when it changes
+            circle = Shape.circle(radius);
+        }
+        return circle;
+    }
 
+    /**
+     * show Spotlight, once the progress is loaded
+     */
+    private void startSpotlight(@NonNull final TargetSequence sequence, final boolean firstStart,
+                                final SpotlightView spotlightView) {
+        if (progressStore != null && !progressStore.isLoaded()) {
+            progressStore.runWhenLoaded(new Runnable() {
                 @Override
-                public void onAnimationRepeat(Animator animation) {
-
+                public void run() {
+                    if (sequence == Spotlight.this.sequence) {
+                        startSpotlight(sequence, firstStart, spotlightView);
+                    }
                 }
             });
-            objectAnimator.start();
+            return;
+        }
+        if (firstStart && progressStore != null && !spotlightView.isFadingOut() && isSkipped(sequence)) {
+            // the tour was already completed, so the Spotlight is not shown at all
+            skipCompletedTour(spotlightView);
+        } else if (firstStart) {
+            spotlightView.setVisibility(View.VISIBLE);
+            if (preparation != null) {
+                // the first Target is prepared while the Spotlight fades in
+                preparation.prepareFrom(sequence.index());
+            }
+            if (startedListener != null) startedListener.onStarted();
+            spotlightView.fadeIn(START_SPOTLIGHT_DURATION);
         } else {
-            startTarget(targets, spotlightView);
+            startFirstTarget(sequence, spotlightView);
         }
     }
 
     /**
-     * hide Target
+     * whether the tour was completed, or all of its Targets were shown already,
+     * moving the sequence to its first Target otherwise
      */
-    private <T extends Target> void finishTarget(@NonNull List<T> targets, SpotlightView spotlightView) {
-        if (!targets.isEmpty()) {
-            Target target = targets.get(0);
-            spotlightView.turnDown(target.getRadius(), duration, animation);
-        }
+    private boolean isSkipped(@NonNull TargetSequence sequence) {
+        return progressStore.isTourCompleted(tourId) || !sequence.skipToFirst();
     }
 
     /**
-     * hide Spotlight
+     * completes a tour whose Targets were all shown already, and removes its view if one was attached
      */
-    private void finishSpotlight(final Context context, final SpotlightView spotlightView) {
-        if (closeAfterEnd) {
-            ObjectAnimator objectAnimator = ObjectAnimator.ofFloat(spotlightView, "alpha", 1f, 0f);
-            objectAnimator.setDuration(FINISH_SPOTLIGHT_DURATION);
-            objectAnimator.addListener(new Animator.AnimatorListener() {
-                @Override
-                public void onAnimationStart(Animator animation) {
-
-                }
-
-                @Override
-                public void onAnimationEnd(Animator animation) {
-                    final View decorView = ((Activity) context).getWindow().getDecorView();
-                    ((ViewGroup) decorView).removeView(spotlightView);
-                    if (endedListener != null) endedListener.onEnded(true);
-                }
+    private void skipCompletedTour(@Nullable SpotlightView spotlightView) {
+        completeTour();
+        sequence = null;
+        if (preparation != null) {
+            preparation.cancel();
+            preparation = null;
+        }
+        if (spotlightView != null && spotlightView.getParent() != null) {
+            ((ViewGroup) spotlightView.getParent()).removeView(spotlightView);
+        }
+        endSession();
+    }
 
-                @Override
-                public void onAnimationCancel(Animator animation) {
+    /**
+     * hide Target, or morph it into the next one
+     */
+    private void finishTarget(@NonNull TargetSequence sequence, SpotlightView spotlightView) {
+        Target target = sequence.current();
+        if (target == null) {
+            return;
+        }
+        if (transition == TRANSITION_MORPH && sequence.hasNext()) {
+            endTarget(sequence, spotlightView);
+            sequence.advance();
+            startTarget(sequence, spotlightView);
+        } else {
+            spotlightView.turnDown(duration, animation);
+        }
+    }
 
-                }
+    /**
+     * notifies the end of the current Target and releases its view
+     *
+     * @return false if there's no current Target
+     */
+    private boolean endTarget(@NonNull TargetSequence sequence, SpotlightView spotlightView) {
+        Target target = sequence.current();
+        if (target == null) {
+            return false;
+        }
+        sequence.setShowing(false);
+        TargetMetrics metrics = spotlightView.endMetrics();
+        if (metrics != null && metricsListener != null) {
+            metricsListener.onTargetMetrics(target, metrics);
+        }
+        if (target.getListener() != null) {
+            target.getListener().onEnded(target);
+        }
+        if (progressStore != null) {
+            progressStore.markTargetCompleted(tourId, sequence.index());
+        }
+        LazyView lazyView = LazyView.of(target);
+        if (lazyView != null) {
+            lazyView.releaseView(spotlightView.getViewPool());
+        }
+        return true;
+    }
 
-                @Override
-                public void onAnimationRepeat(Animator animation) {
+    /**
+     * remembers that the tour was shown until its end
+     */
+    private void completeTour() {
+        if (progressStore != null) {
+            progressStore.markTourCompleted(tourId);
+        }
+    }
 
-                }
-            });
-            objectAnimator.start();
+    /**
+     * hide Spotlight
+     */
+    private void finishSpotlight(SpotlightView spotlightView) {
+        // the sequence can't be moved any more, only started again
+        sequence = null;
+        if (preparation != null) {
+            // e.g. when jumping to the end, the Targets prepared ahead give their views back
+            preparation.cancel();
+            preparation = null;
+        }
+        if (closeAfterEnd) {
+            spotlightView.fadeOut(FINISH_SPOTLIGHT_DURATION);
         } else {
-            removeTutorialView(spotlightView);
+            spotlightView.setTutorialView(null, null);
+            spotlightView.setOverlayText(null);
+            endSession();
             if (endedListener != null) endedListener.onEnded(false);
         }
     }
+
+    /**
+     * stops following the lifecycle of the Activity of the last start
+     */
+    private void endSession() {
+        if (session != null) {
+            session.end();
+            session = null;
+        }
+    }
 }
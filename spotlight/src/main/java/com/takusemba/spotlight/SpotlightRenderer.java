@@ -0,0 +1,42 @@
+package com.takusemba.spotlight;
+
+import android.graphics.Canvas;
+import android.graphics.Paint;
+
+/**
+ * Strategy which draws the background of {@link SpotlightView} and trims the spotlights out of it
+ */
+interface SpotlightRenderer {
+
+    /**
+     * gets the layer type {@link SpotlightView} needs for this renderer
+     *
+     * @return one of the View.LAYER_TYPE_* constants
+     */
+    int getLayerType();
+
+    /**
+     * draws the background and trims the shapes
+     *
+     * @param canvas     the canvas on which the background will be drawn
+     * @param width      width of the background
+     * @param height     height of the background
+     * @param background paint of the background
+     * @param points     resolved positions of the shapes
+     * @param shape      shape trimmed around each point, or null if there's no Target
+     * @param scale      current scale of the shapes, from 0 to 1
+     * @param animating  whether the frame is about to change, false only once a reveal completed and nothing animates
+     */
+    void draw(Canvas canvas, int width, int height, Paint background, PointBuffer points,
+              Shape shape, float scale, boolean animating);
+
+    /**
+     * sets whether the shapes of all the points are merged into one path and drawn at once
+     */
+    void setBatched(boolean batched);
+
+    /**
+     * releases resources held by this renderer
+     */
+    void release();
+}
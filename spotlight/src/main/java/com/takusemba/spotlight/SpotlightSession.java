@@ -0,0 +1,111 @@
+package com.takusemba.spotlight;
+
+import android.app.Activity;
+import android.app.Application;
+import android.os.Bundle;
+import android.support.annotation.NonNull;
+
+import java.lang.ref.WeakReference;
+
+/**
+ * Running Spotlight returned by {@link Spotlight#start(Activity, Target[])}.
+ * Follows the lifecycle of the Activity the Spotlight is shown on: the animation is paused while the Activity
+ * is paused, and the caches and pooled views are dropped while it is stopped, to be created again once shown.
+ * The session ends with the Spotlight or the Activity.
+ */
+public final class SpotlightSession {
+
+    private final WeakReference<Activity> activityWeakReference;
+    private final WeakReference<SpotlightView> spotlightViewWeakReference;
+    private final Application application;
+    private final Application.ActivityLifecycleCallbacks callbacks = new Application.ActivityLifecycleCallbacks() {
+        @Override
+        public void onActivityCreated(Activity activity, Bundle savedInstanceState) {
+        }
+
+        @Override
+        public void onActivityStarted(Activity activity) {
+        }
+
+        @Override
+        public void onActivityResumed(Activity activity) {
+            SpotlightView spotlightView = getSpotlightView(activity);
+            if (spotlightView != null) {
+                spotlightView.resumeAnimations();
+            }
+        }
+
+        @Override
+        public void onActivityPaused(Activity activity) {
+            SpotlightView spotlightView = getSpotlightView(activity);
+            if (spotlightView != null) {
+                spotlightView.pauseAnimations();
+            }
+        }
+
+        @Override
+        public void onActivityStopped(Activity activity) {
+            SpotlightView spotlightView = getSpotlightView(activity);
+            if (spotlightView != null) {
+                spotlightView.releaseCaches();
+            }
+        }
+
+        @Override
+        public void onActivitySaveInstanceState(Activity activity, Bundle outState) {
+        }
+
+        @Override
+        public void onActivityDestroyed(Activity activity) {
+            if (activity == activityWeakReference.get()) {
+                end();
+            }
+        }
+    };
+    private boolean active = true;
+
+    SpotlightSession(@NonNull Activity activity, @NonNull SpotlightView spotlightView) {
+        this.activityWeakReference = new WeakReference<>(activity);
+        this.spotlightViewWeakReference = new WeakReference<>(spotlightView);
+        this.application = activity.getApplication();
+        application.registerActivityLifecycleCallbacks(callbacks);
+    }
+
+    private SpotlightSession() {
+        this.activityWeakReference = new WeakReference<Activity>(null);
+        this.spotlightViewWeakReference = new WeakReference<SpotlightView>(null);
+        this.application = null;
+        this.active = false;
+    }
+
+    /**
+     * creates a session which already ended, for a Spotlight which was not shown at all
+     */
+    static SpotlightSession ended() {
+        return new SpotlightSession();
+    }
+
+    /**
+     * whether the Spotlight of this session is still shown
+     */
+    public boolean isActive() {
+        return active;
+    }
+
+    /**
+     * stops following the lifecycle of the Activity. Called when the Spotlight ends.
+     */
+    void end() {
+        if (active) {
+            active = false;
+            application.unregisterActivityLifecycleCallbacks(callbacks);
+        }
+    }
+
+    /**
+     * gets the view of this session if the lifecycle event is the one of its Activity
+     */
+    private SpotlightView getSpotlightView(Activity activity) {
+        return activity == activityWeakReference.get() ? spotlightViewWeakReference.get() : null;
+    }
+}
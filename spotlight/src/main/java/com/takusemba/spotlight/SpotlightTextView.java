@@ -0,0 +1,154 @@
+package com.takusemba.spotlight;
+
+import android.content.Context;
+import android.graphics.Canvas;
+import android.graphics.Color;
+import android.graphics.Paint;
+import android.graphics.Typeface;
+import android.text.StaticLayout;
+import android.text.TextPaint;
+import android.text.TextUtils;
+import android.util.DisplayMetrics;
+import android.util.TypedValue;
+import android.view.View;
+
+/**
+ * Single view drawing the title and the description of a {@link SimpleTarget}
+ * with layouts from {@link TextLayoutCache}, in place of two TextViews in nested LinearLayouts.
+ * The text wraps at the width of the view, which {@link SimpleTarget} constrains with its margins.
+ */
+final class SpotlightTextView extends View {
+
+    private static final float TITLE_SIZE = 24f;
+    private static final float DESCRIPTION_SIZE = 18f;
+    private static final float SPACING = 16f;
+
+    private final TextPaint titlePaint;
+    private final TextPaint descriptionPaint;
+    private final int spacing;
+    private CharSequence title;
+    private CharSequence description;
+    private StaticLayout titleLayout;
+    private StaticLayout descriptionLayout;
+    /**
+     * width the layouts were made for, or -1 once the text changed
+     */
+    private int layoutWidth = -1;
+
+    SpotlightTextView(Context context, TextPaint titlePaint, TextPaint descriptionPaint) {
+        super(context);
+        this.titlePaint = titlePaint;
+        this.descriptionPaint = descriptionPaint;
+        this.spacing = getSpacing(context.getResources().getDisplayMetrics());
+    }
+
+    /**
+     * creates the paint of the title, with the same style as in layout_spotlight
+     */
+    static TextPaint createTitlePaint(DisplayMetrics metrics) {
+        TextPaint paint = createPaint(metrics, TITLE_SIZE);
+        paint.setTypeface(Typeface.DEFAULT_BOLD);
+        return paint;
+    }
+
+    /**
+     * creates the paint of the description, with the same style as in layout_spotlight
+     */
+    static TextPaint createDescriptionPaint(DisplayMetrics metrics) {
+        return createPaint(metrics, DESCRIPTION_SIZE);
+    }
+
+    /**
+     * gets the space between the title and the description
+     */
+    static int getSpacing(DisplayMetrics metrics) {
+        return (int) TypedValue.applyDimension(TypedValue.COMPLEX_UNIT_DIP, SPACING, metrics);
+    }
+
+    private static TextPaint createPaint(DisplayMetrics metrics, float size) {
+        TextPaint paint = new TextPaint(Paint.ANTI_ALIAS_FLAG);
+        paint.setColor(Color.WHITE);
+        paint.setTextSize(TypedValue.applyDimension(TypedValue.COMPLEX_UNIT_SP, size, metrics));
+        return paint;
+    }
+
+    void setText(CharSequence title, CharSequence description) {
+        this.title = title;
+        this.description = description;
+        layoutWidth = -1;
+        // nothing is left for accessibility services to read, since the text is only drawn
+        setContentDescription(getAccessibilityText(title, description));
+        requestLayout();
+        invalidate();
+    }
+
+    /**
+     * gets the text read by accessibility services for a title and a description
+     */
+    static CharSequence getAccessibilityText(CharSequence title, CharSequence description) {
+        if (TextUtils.isEmpty(title)) {
+            return description;
+        }
+        if (TextUtils.isEmpty(description)) {
+            return title;
+        }
+        return title + "\n" + description;
+    }
+
+    /**
+     * gets the cached layout of a text, or null if there's no text
+     */
+    static StaticLayout getLayout(CharSequence text, TextPaint paint, int width) {
+        return TextUtils.isEmpty(text) ? null : TextLayoutCache.get(text, paint, width);
+    }
+
+    /**
+     * gets the height of the title and the description stacked on each other
+     */
+    static int getTextHeight(StaticLayout titleLayout, StaticLayout descriptionLayout, int spacing) {
+        int height = 0;
+        if (titleLayout != null) {
+            height += titleLayout.getHeight() + spacing;
+        }
+        if (descriptionLayout != null) {
+            height += descriptionLayout.getHeight();
+        }
+        return height;
+    }
+
+    /**
+     * draws the title and the description stacked on each other, from the given position
+     */
+    static void drawText(Canvas canvas, float left, float top, StaticLayout titleLayout,
+                         StaticLayout descriptionLayout, int spacing) {
+        int count = canvas.save();
+        canvas.translate(left, top);
+        if (titleLayout != null) {
+            titleLayout.draw(canvas);
+            canvas.translate(0, titleLayout.getHeight() + spacing);
+        }
+        if (descriptionLayout != null) {
+            descriptionLayout.draw(canvas);
+        }
+        canvas.restoreToCount(count);
+    }
+
+    @Override
+    protected void onMeasure(int widthMeasureSpec, int heightMeasureSpec) {
+        int width = MeasureSpec.getSize(widthMeasureSpec);
+        int textWidth = width - getPaddingLeft() - getPaddingRight();
+        if (textWidth != layoutWidth) {
+            // measured on every layout pass, while the text only changes in setText and the paints never do
+            titleLayout = getLayout(title, titlePaint, textWidth);
+            descriptionLayout = getLayout(description, descriptionPaint, textWidth);
+            layoutWidth = textWidth;
+        }
+        int height = getPaddingTop() + getPaddingBottom() + getTextHeight(titleLayout, descriptionLayout, spacing);
+        setMeasuredDimension(width, resolveSize(height, heightMeasureSpec));
+    }
+
+    @Override
+    protected void onDraw(Canvas canvas) {
+        drawText(canvas, getPaddingLeft(), getPaddingTop(), titleLayout, descriptionLayout, spacing);
+    }
+}
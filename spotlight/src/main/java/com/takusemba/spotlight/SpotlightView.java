@@ -1,26 +1,26 @@
 package com.takusemba.spotlight;
 
-import android.animation.Animator;
 import android.animation.TimeInterpolator;
-import android.animation.ValueAnimator;
 import android.content.Context;
 import android.graphics.Canvas;
 import android.graphics.Paint;
-import android.graphics.PointF;
-import android.graphics.PorterDuff;
-import android.graphics.PorterDuffXfermode;
+import android.graphics.Rect;
+import android.os.Build;
 import android.support.annotation.AttrRes;
 import android.support.annotation.ColorInt;
 import android.support.annotation.NonNull;
 import android.support.annotation.Nullable;
 import android.support.v4.content.ContextCompat;
 import android.util.AttributeSet;
+import android.view.MotionEvent;
 import android.view.View;
 import android.view.ViewGroup;
+import android.view.ViewTreeObserver;
+import android.view.WindowManager;
+import android.view.animation.AccelerateDecelerateInterpolator;
 import android.widget.FrameLayout;
 import android.widget.ImageView;
 
-import java.util.ArrayList;
 import java.util.List;
 
 import static android.view.Gravity.END;
@@ -34,12 +34,127 @@ import static android.view.Gravity.TOP;
  **/
 class SpotlightView extends FrameLayout {
 
+    private static final TimeInterpolator FADE_INTERPOLATOR = new AccelerateDecelerateInterpolator();
+
     private final Paint paint = new Paint();
-    private final Paint spotPaint = new Paint();
-    private final List<PointProvider> points = new ArrayList<>();
-    private ValueAnimator animator;
+    private final PointBuffer points = new PointBuffer();
+    private final PointBuffer fromPoints = new PointBuffer();
+    private final PointBuffer morphPoints = new PointBuffer();
+    private final TargetViewPool viewPool = new TargetViewPool();
+    private final Rect holeBounds = new Rect();
+    private final Rect dirtyRegion = new Rect();
+    private final Rect closeButtonBounds = new Rect();
+    private final HoleIndex holeIndex = new HoleIndex();
+    private final AnimationController animationController =
+            new AnimationController(new AnimationController.Callback() {
+                @Override
+                public void onAnimationUpdate(int phase, float fraction) {
+                    switch (phase) {
+                        case AnimationController.PHASE_FADE_IN:
+                            setAlpha(startAlpha + (1f - startAlpha) * fraction);
+                            break;
+                        case AnimationController.PHASE_FADE_OUT:
+                            setAlpha(startAlpha * (1f - fraction));
+                            break;
+                        case AnimationController.PHASE_REVEAL:
+                            if (morphing) {
+                                morphFraction = fraction;
+                            }
+                            scale = startScale + (endScale - startScale) * fraction;
+                            if (usesDirtyRegion()) {
+                                invalidateHoles();
+                            } else {
+                                invalidate();
+                            }
+                            break;
+                        case AnimationController.PHASE_COLLAPSE:
+                            // a morph interrupted by a collapse stays where it stopped
+                            scale = startScale + (endScale - startScale) * fraction;
+                            if (usesDirtyRegion()) {
+                                invalidateHoles();
+                            } else {
+                                invalidate();
+                            }
+                            break;
+                    }
+                }
+
+                @Override
+                public void onAnimationEnd(int phase) {
+                    if (phase == AnimationController.PHASE_REVEAL || phase == AnimationController.PHASE_COLLAPSE) {
+                        morphing = false;
+                        revealed = phase == AnimationController.PHASE_REVEAL;
+                    }
+                    if (listener == null) {
+                        return;
+                    }
+                    switch (phase) {
+                        case AnimationController.PHASE_FADE_IN:
+                            listener.onSpotlightShown();
+                            break;
+                        case AnimationController.PHASE_COLLAPSE:
+                            listener.onTargetClosed();
+                            break;
+                        case AnimationController.PHASE_FADE_OUT:
+                            listener.onSpotlightHidden();
+                            break;
+                    }
+                }
+            });
+    private final ViewTreeObserver.OnGlobalLayoutListener layoutListener =
+            new ViewTreeObserver.OnGlobalLayoutListener() {
+                @Override
+                public void onGlobalLayout() {
+                    points.invalidate();
+                }
+            };
+    private final ViewTreeObserver.OnScrollChangedListener scrollListener =
+            new ViewTreeObserver.OnScrollChangedListener() {
+                @Override
+                public void onScrollChanged() {
+                    points.invalidate();
+                }
+            };
+    private final ViewTreeObserver.OnPreDrawListener preDrawListener =
+            new ViewTreeObserver.OnPreDrawListener() {
+                @Override
+                public boolean onPreDraw() {
+                    trackPoints();
+                    return true;
+                }
+            };
+    private Shape shape;
+    private float scale;
+    private float startScale;
+    private float endScale;
+    private float startAlpha;
+    @Spotlight.TouchMode
+    private int touchMode = Spotlight.TOUCH_ANYWHERE;
+    private float downX;
+    private float downY;
+    private boolean morphing;
+    /**
+     * whether the reveal of the current shape completed, after which frames only change when something else does
+     */
+    private boolean revealed;
+    private float morphFraction;
+    private boolean invalidateDirtyRegion;
+    private boolean batchShapes;
+    private boolean pointsResolved;
+    private boolean prepared;
+    private SpotlightRenderer renderer = new XfermodeRenderer();
+    private FrameMetricsCollector metricsCollector;
     private OnSpotlightStateChangedListener listener;
     private ImageView closeButton;
+    private View tutorialView;
+    private LazyView tutorialTarget;
+    private LazyView placedTarget;
+    private int placedWidth;
+    private int placedHeight;
+    private OverlayText overlayText;
+    private int overlayTextWidth;
+    private int overlayTextHeight;
+    private int overlayTextModCount;
 
     public SpotlightView(@NonNull Context context) {
         super(context, null);
@@ -57,17 +172,69 @@ class SpotlightView extends FrameLayout {
         init();
     }
 
+    @Override
+    protected void onAttachedToWindow() {
+        super.onAttachedToWindow();
+        ViewTreeObserver observer = getViewTreeObserver();
+        observer.addOnGlobalLayoutListener(layoutListener);
+        observer.addOnScrollChangedListener(scrollListener);
+        observer.addOnPreDrawListener(preDrawListener);
+    }
+
+    @SuppressWarnings("deprecation")
     @Override
     protected void onDetachedFromWindow() {
         super.onDetachedFromWindow();
+        ViewTreeObserver observer = getViewTreeObserver();
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.JELLY_BEAN) {
+            observer.removeOnGlobalLayoutListener(layoutListener);
+        } else {
+            observer.removeGlobalOnLayoutListener(layoutListener);
+        }
+        observer.removeOnScrollChangedListener(scrollListener);
+        observer.removeOnPreDrawListener(preDrawListener);
         points.clear();
-        if (animator == null) {
-            return;
+        fromPoints.clear();
+        morphPoints.clear();
+        morphing = false;
+        revealed = false;
+        animationController.cancel();
+        if (metricsCollector != null) {
+            metricsCollector.cancel();
         }
-        if (animator.isStarted()) {
-            animator.cancel();
+        releaseCaches();
+    }
+
+    /**
+     * pauses the running animation while the Activity is not in the foreground
+     */
+    void pauseAnimations() {
+        animationController.pause();
+        if (metricsCollector != null) {
+            metricsCollector.pause();
+        }
+    }
+
+    /**
+     * resumes the animation paused by {@link #pauseAnimations()}
+     */
+    void resumeAnimations() {
+        animationController.resume();
+        if (metricsCollector != null) {
+            metricsCollector.resume();
         }
-        animator = null;
+    }
+
+    /**
+     * drops the bitmaps, paths and pooled views which are only kept to draw faster.
+     * they are created again when they are needed.
+     */
+    void releaseCaches() {
+        renderer.release();
+        viewPool.clear();
+        holeIndex.clear();
+        // the next frame must not draw from the recycled bitmap
+        invalidate();
     }
 
     /**
@@ -90,6 +257,137 @@ class SpotlightView extends FrameLayout {
         paint.setColor(color);
     }
 
+    /**
+     * gets the pool of the Target views shown on this view
+     */
+    TargetViewPool getViewPool() {
+        return viewPool;
+    }
+
+    /**
+     * replaces the view describing the current Target
+     *
+     * @param view   the view of the Target, or null to only remove the current one
+     * @param target the lazy view of the Target positioning the view while this view is measured, if any
+     */
+    void setTutorialView(@Nullable View view, @Nullable LazyView target) {
+        tutorialTarget = target;
+        placedTarget = null;
+        if (tutorialView == view) {
+            // a recycled view may be shown again for the next Target
+            requestLayout();
+            return;
+        }
+        if (tutorialView != null) {
+            removeView(tutorialView);
+        }
+        tutorialView = view;
+        if (view != null) {
+            addView(view);
+        }
+    }
+
+    /**
+     * sets the Target whose text is drawn on this view, in place of a view of the Target
+     *
+     * @param target the text of the Target, or null to draw none
+     */
+    void setOverlayText(@Nullable OverlayText target) {
+        if (overlayText != target) {
+            overlayText = target;
+            overlayTextWidth = 0;
+            overlayTextHeight = 0;
+            // the text is only drawn, so it is handed to accessibility services here
+            CharSequence text = target != null ? target.getAccessibilityText() : null;
+            setContentDescription(text);
+            if (text != null && Build.VERSION.SDK_INT >= Build.VERSION_CODES.JELLY_BEAN) {
+                announceForAccessibility(text);
+            }
+            invalidate();
+        }
+    }
+
+    /**
+     * sets the renderer which draws the background and trims the circles
+     */
+    void setRenderer(@NonNull SpotlightRenderer renderer) {
+        this.renderer.release();
+        this.renderer = renderer;
+        renderer.setBatched(batchShapes);
+        setLayerType(renderer.getLayerType(), null);
+        invalidate();
+    }
+
+    /**
+     * enables or disables the collection of frame timings
+     */
+    void setMetricsEnabled(boolean enabled) {
+        if (enabled) {
+            if (metricsCollector == null) {
+                metricsCollector = new FrameMetricsCollector(animationController, getRefreshRate());
+            }
+        } else if (metricsCollector != null) {
+            metricsCollector.cancel();
+            metricsCollector = null;
+        }
+    }
+
+    /**
+     * gets the refresh rate of the display, or 0 if unknown
+     */
+    private float getRefreshRate() {
+        WindowManager windowManager = (WindowManager) getContext().getSystemService(Context.WINDOW_SERVICE);
+        return windowManager != null ? windowManager.getDefaultDisplay().getRefreshRate() : 0f;
+    }
+
+    /**
+     * starts collecting the frame timings of a Target, if enabled
+     */
+    void beginMetrics() {
+        if (metricsCollector != null) {
+            metricsCollector.begin();
+        }
+    }
+
+    /**
+     * stops collecting the frame timings of a Target
+     *
+     * @return the frame timings, or null if disabled
+     */
+    @Nullable
+    TargetMetrics endMetrics() {
+        return metricsCollector != null ? metricsCollector.end() : null;
+    }
+
+    /**
+     * sets whether the shapes of all the points are drawn at once as a single path
+     */
+    void setBatchShapes(boolean batchShapes) {
+        if (this.batchShapes != batchShapes) {
+            this.batchShapes = batchShapes;
+            renderer.setBatched(batchShapes);
+            invalidate();
+        }
+    }
+
+    /**
+     * sets whether animation frames invalidate only the area around the circles instead of the whole view
+     */
+    void setInvalidateDirtyRegion(boolean invalidateDirtyRegion) {
+        this.invalidateDirtyRegion = invalidateDirtyRegion;
+    }
+
+    /**
+     * whether animation frames invalidate only the area around the shapes.
+     * hardware accelerated windows ignore the region from API 21, so it is not even computed there.
+     * text drawn on the overlay follows the points and is only laid out again while drawing,
+     * so the whole view is invalidated while there is some.
+     */
+    private boolean usesDirtyRegion() {
+        return invalidateDirtyRegion && overlayText == null
+                && (Build.VERSION.SDK_INT < Build.VERSION_CODES.LOLLIPOP || !isHardwareAccelerated());
+    }
+
     /**
      * prepares to show this Spotlight
      */
@@ -97,112 +395,344 @@ class SpotlightView extends FrameLayout {
         paint.setColor(ContextCompat.getColor(getContext(), R.color.background));
         bringToFront();
         setWillNotDraw(false);
-        setLayerType(View.LAYER_TYPE_HARDWARE, null);
+        setLayerType(renderer.getLayerType(), null);
         int padding = getResources().getDimensionPixelOffset(R.dimen.close_button_padding);
         closeButton = new ImageView(getContext());
         closeButton.setImageResource(R.drawable.ic_close);
         closeButton.setLayoutParams(new FrameLayout.LayoutParams(ViewGroup.LayoutParams.WRAP_CONTENT, ViewGroup.LayoutParams.WRAP_CONTENT, TOP | END));
         closeButton.setPadding(padding, padding, padding, padding);
         addView(closeButton);
-        spotPaint.setXfermode(new PorterDuffXfermode(PorterDuff.Mode.CLEAR));
         setOnClickListener(new OnClickListener() {
             @Override
             public void onClick(View v) {
-                if (animator != null && !animator.isRunning() && (float) animator.getAnimatedValue() > 0) {
-                    if (listener != null) listener.onTargetClicked();
+                // a Target can be closed while it is still being revealed
+                if (scale > 0 && !isTurningDown() && !isFading() && listener != null) {
+                    if (touchMode == Spotlight.TOUCH_ANYWHERE || isInHole(downX, downY)) {
+                        listener.onTargetClicked();
+                    } else {
+                        listener.onOutsideClicked();
+                    }
                 }
             }
         });
     }
 
     /**
-     * draws black background and trims a circle
+     * sets how touches are routed depending on whether they land in a hole
+     */
+    void setTouchMode(@Spotlight.TouchMode int touchMode) {
+        this.touchMode = touchMode;
+    }
+
+    /**
+     * remembers where a gesture starts, and lets it through to the views below
+     * when it starts in a hole and holes pass touches through
+     */
+    @Override
+    public boolean dispatchTouchEvent(MotionEvent event) {
+        if (event.getActionMasked() == MotionEvent.ACTION_DOWN) {
+            downX = event.getX();
+            downY = event.getY();
+            if (touchMode == Spotlight.TOUCH_HOLE_PASS_THROUGH && !isOnCloseButton(downX, downY)
+                    && isInHole(downX, downY)) {
+                // not consuming the down event hands the whole gesture to the next view of the window
+                return false;
+            }
+        }
+        return super.dispatchTouchEvent(event);
+    }
+
+    private boolean isOnCloseButton(float x, float y) {
+        closeButton.getHitRect(closeButtonBounds);
+        return closeButtonBounds.contains((int) x, (int) y);
+    }
+
+    /**
+     * whether a position is inside one of the holes as they were last drawn
+     */
+    private boolean isInHole(float x, float y) {
+        if (shape == null || scale <= 0 || isFading() || getVisibility() != VISIBLE) {
+            return false;
+        }
+        return holeIndex.findHole(drawnPoints(), shape, scale, x, y) >= 0;
+    }
+
+    /**
+     * positions the view of the current Target once, or again when the size of this view changes
+     */
+    @Override
+    protected void onMeasure(int widthMeasureSpec, int heightMeasureSpec) {
+        int width = MeasureSpec.getSize(widthMeasureSpec);
+        int height = MeasureSpec.getSize(heightMeasureSpec);
+        boolean place = tutorialTarget != null && tutorialView != null
+                && (placedTarget != tutorialTarget || placedWidth != width || placedHeight != height);
+        if (place) {
+            tutorialTarget.onPreMeasure(tutorialView, width, height);
+        }
+        super.onMeasure(widthMeasureSpec, heightMeasureSpec);
+        if (place) {
+            tutorialTarget.onPostMeasure(tutorialView, width, height);
+            placedTarget = tutorialTarget;
+            placedWidth = width;
+            placedHeight = height;
+        }
+    }
+
+    /**
+     * draws black background and trims the shapes with the {@link SpotlightRenderer}
+     * nothing is allocated here since it runs on every animation frame
      *
      * @param canvas the canvas on which the background will be drawn
      */
     @Override
     protected void onDraw(Canvas canvas) {
         super.onDraw(canvas);
-        canvas.drawRect(0, 0, canvas.getWidth(), canvas.getHeight(), paint);
-        if (animator != null) {
-            for (PointProvider point : points) {
-                if (point.isVisible()) {
-                    PointF pointF = point.getPoint();
-                    canvas.drawCircle(pointF.x, pointF.y, (float) animator.getAnimatedValue(), spotPaint);
-                }
+        long drawStart = metricsCollector != null ? System.nanoTime() : 0L;
+        if (!pointsResolved) {
+            updatePoints();
+        }
+        pointsResolved = false;
+        PointBuffer drawn = drawnPoints();
+        // settled only once a reveal completed, never while fading or before the first Target
+        boolean animating = !revealed || animationController.isRunning();
+        int width = getWidth();
+        int height = getHeight();
+        renderer.draw(canvas, width, height, paint, drawn, shape, scale, animating);
+        if (overlayText != null && width > 0 && height > 0) {
+            if (overlayTextWidth != width || overlayTextHeight != height
+                    || overlayTextModCount != points.getModCount()) {
+                // laid out once per Target, size and positions, the layouts themselves come from TextLayoutCache
+                overlayText.layoutOnOverlay(getResources().getDisplayMetrics(), width, height);
+                overlayTextWidth = width;
+                overlayTextHeight = height;
+                overlayTextModCount = points.getModCount();
             }
+            overlayText.drawOnOverlay(canvas);
+        }
+        if (metricsCollector != null) {
+            metricsCollector.onFrameDrawn(System.nanoTime() - drawStart);
         }
     }
 
     /**
-     * starts an animation to show a circle
-     *
-     * @param x         initial position x where the circle is showing up
-     * @param y         initial position y where the circle is showing up
-     * @param radius    radius of the circle
-     * @param duration  duration of the animation
-     * @param animation type of the animation
+     * resolves the positions of the circles, measuring the time it takes if metrics are enabled
      */
-    void turnUp(List<PointProvider> points, float radius, long duration, TimeInterpolator animation) {
-        this.points.clear();
-        this.points.addAll(points);
-        animator = ValueAnimator.ofFloat(0f, radius);
-        animator.addUpdateListener(new ValueAnimator.AnimatorUpdateListener() {
-            @Override
-            public void onAnimationUpdate(ValueAnimator animation) {
-                SpotlightView.this.invalidate();
-            }
-        });
-        animator.setInterpolator(animation);
-        animator.setDuration(duration);
-        animator.start();
+    private void updatePoints() {
+        if (metricsCollector == null) {
+            points.update();
+            return;
+        }
+        long start = System.nanoTime();
+        points.update();
+        metricsCollector.onPointsResolved(System.nanoTime() - start);
     }
 
     /**
-     * starts an animation to close the circle
-     *
-     * @param radius    radius of the circle
-     * @param duration  duration of the animation
-     * @param animation type of the animation
+     * gets the positions to draw, which are in between the previous and the current Target while morphing
      */
-    void turnDown(float radius, long duration, TimeInterpolator animation) {
-        animator = ValueAnimator.ofFloat(radius, 0f);
-        animator.addUpdateListener(new ValueAnimator.AnimatorUpdateListener() {
-            @Override
-            public void onAnimationUpdate(ValueAnimator animation) {
-                SpotlightView.this.invalidate();
-            }
-        });
-        animator.addListener(new Animator.AnimatorListener() {
-            @Override
-            public void onAnimationStart(Animator animation) {
+    private PointBuffer drawnPoints() {
+        if (!morphing) {
+            return points;
+        }
+        morphPoints.interpolate(fromPoints, points, morphFraction);
+        return morphPoints;
+    }
 
-            }
+    /**
+     * invalidates the union of the shapes drawn in the last frame and the ones to be drawn in the next frame
+     */
+    private void invalidateHoles() {
+        updatePoints();
+        pointsResolved = true;
+        invalidateHoleBounds();
+    }
 
-            @Override
-            public void onAnimationEnd(Animator animation) {
-                if (listener != null) listener.onTargetClosed();
+    /**
+     * resolves the tracking points before a frame in which nothing animates,
+     * and redraws the area around them only if one of them moved
+     */
+    private void trackPoints() {
+        if (!points.hasTrackingPoints() || shape == null || scale <= 0
+                || animationController.isRunning() || getVisibility() != VISIBLE) {
+            return;
+        }
+        int modCount = points.getModCount();
+        updatePoints();
+        if (points.getModCount() == modCount) {
+            return;
+        }
+        pointsResolved = true;
+        if (usesDirtyRegion()) {
+            invalidateHoleBounds();
+        } else {
+            invalidate();
+        }
+    }
+
+    /**
+     * invalidates the union of the shapes drawn in the last frame and the ones at the resolved positions
+     */
+    private void invalidateHoleBounds() {
+        PointBuffer drawn = drawnPoints();
+        dirtyRegion.set(holeBounds);
+        holeBounds.setEmpty();
+        // one extra pixel for anti-aliased edges
+        int extent = shape != null ? (int) Math.ceil(shape.getExtent() * scale) + 1 : 0;
+        for (int i = 0, size = drawn.size(); i < size; i++) {
+            if (drawn.isVisible(i)) {
+                int x = (int) drawn.getX(i);
+                int y = (int) drawn.getY(i);
+                holeBounds.union(x - extent, y - extent, x + extent + 1, y + extent + 1);
             }
+        }
+        dirtyRegion.union(holeBounds);
+        if (!dirtyRegion.isEmpty()) {
+            invalidate(dirtyRegion.left, dirtyRegion.top, dirtyRegion.right, dirtyRegion.bottom);
+        }
+    }
 
-            @Override
-            public void onAnimationCancel(Animator animation) {
+    /**
+     * whether the shape of the current Target is being closed
+     */
+    boolean isTurningDown() {
+        return animationController.isRunning(AnimationController.PHASE_COLLAPSE);
+    }
 
-            }
+    /**
+     * hides this view and creates everything the first Target needs, so that showing it later
+     * only has to flip the visibility back
+     */
+    void prepare() {
+        prepared = true;
+        setVisibility(INVISIBLE);
+        animationController.prepare();
+    }
 
-            @Override
-            public void onAnimationRepeat(Animator animation) {
+    /**
+     * whether this view was prepared by {@link #prepare()} and has not been shown yet
+     */
+    boolean isPrepared() {
+        return prepared;
+    }
 
-            }
-        });
-        animator.setInterpolator(animation);
-        animator.setDuration(duration);
-        animator.start();
+    /**
+     * makes a prepared view visible, keeping it transparent until it fades in
+     */
+    void show() {
+        prepared = false;
+        setAlpha(0f);
+        setVisibility(VISIBLE);
+    }
+
+    /**
+     * whether this view is fading in or out
+     */
+    boolean isFading() {
+        return animationController.isRunning(AnimationController.PHASE_FADE_IN) || isFadingOut();
+    }
+
+    /**
+     * whether this view is fading out, in which case it can still be faded in again
+     */
+    boolean isFadingOut() {
+        return animationController.isRunning(AnimationController.PHASE_FADE_OUT);
+    }
+
+    /**
+     * tells the listener that the Spotlight fading out ended, since this view is reused before it's hidden
+     */
+    void endFadeOut() {
+        if (isFadingOut() && listener != null) {
+            listener.onSpotlightReplaced();
+        }
+    }
+
+    /**
+     * starts an animation to fade this view in.
+     * fading in while fading out continues from the current alpha.
+     *
+     * @param duration duration of the animation
+     */
+    void fadeIn(long duration) {
+        startAlpha = isFadingOut() ? getAlpha() : 0f;
+        setAlpha(startAlpha);
+        startAnimation(AnimationController.PHASE_FADE_IN, (long) (duration * (1f - startAlpha)),
+                FADE_INTERPOLATOR);
+    }
+
+    /**
+     * starts an animation to fade this view out from the current alpha
+     *
+     * @param duration duration of the animation
+     */
+    void fadeOut(long duration) {
+        startAlpha = getAlpha();
+        startAnimation(AnimationController.PHASE_FADE_OUT, (long) (duration * startAlpha),
+                FADE_INTERPOLATOR);
+    }
+
+    /**
+     * starts an animation to show a shape.
+     * if a shape is still showing, e.g. when moving to the next Target without closing it, it morphs into the new one
+     * from its current size and position instead of restarting from nothing.
+     *
+     * @param points    positions where the shapes are showing up
+     * @param shape     shape trimmed around each point, or null to trim nothing
+     * @param duration  duration of the animation
+     * @param animation type of the animation
+     */
+    void turnUp(List<PointProvider> points, @Nullable Shape shape, long duration, TimeInterpolator animation) {
+        float fromExtent = this.shape != null ? this.shape.getExtent() * scale : 0f;
+        boolean morph = fromExtent > 0f && this.points.size() > 0 && shape != null;
+        if (morph) {
+            this.points.update();
+            fromPoints.copy(drawnPoints());
+        }
+        morphing = morph;
+        morphFraction = 0f;
+        revealed = false;
+        this.points.set(points);
+        this.shape = shape;
+        startScale = morph ? fromExtent / shape.getExtent() : 0f;
+        endScale = 1f;
+        scale = startScale;
+        startAnimation(AnimationController.PHASE_REVEAL, duration, animation);
+    }
+
+    /**
+     * starts an animation to close the shape from its current size.
+     * interrupting a reveal shortens the collapse by the part of the reveal which did not run.
+     *
+     * @param duration  duration of the animation
+     * @param animation type of the animation
+     */
+    void turnDown(long duration, TimeInterpolator animation) {
+        startScale = scale;
+        endScale = 0f;
+        revealed = false;
+        startAnimation(AnimationController.PHASE_COLLAPSE, (long) (duration * Math.min(1f, scale)),
+                animation);
+    }
+
+    /**
+     * starts the animator of a phase, and counts its frames if metrics are enabled
+     */
+    private void startAnimation(int phase, long duration, TimeInterpolator interpolator) {
+        animationController.start(phase, duration, interpolator);
+        if (metricsCollector != null) {
+            metricsCollector.onAnimationStarted();
+        }
     }
 
     /**
      * Listener to control Target state
      */
     interface OnSpotlightStateChangedListener {
+        /**
+         * Called when Spotlight faded in completely
+         */
+        void onSpotlightShown();
+
         /**
          * Called when Target closed completely
          */
@@ -212,5 +742,20 @@ class SpotlightView extends FrameLayout {
          * Called when Target is Clicked
          */
         void onTargetClicked();
+
+        /**
+         * Called when the overlay is clicked outside of the holes, if touches are routed by hole
+         */
+        void onOutsideClicked();
+
+        /**
+         * Called when Spotlight faded out completely
+         */
+        void onSpotlightHidden();
+
+        /**
+         * Called when Spotlight is started again while fading out, which keeps the view instead of hiding it
+         */
+        void onSpotlightReplaced();
     }
 }
\ No newline at end of file
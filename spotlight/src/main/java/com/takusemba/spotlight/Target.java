@@ -1,6 +1,5 @@
 package com.takusemba.spotlight;
 
-import android.graphics.PointF;
 import android.view.View;
 
 import java.util.Collections;
@@ -48,18 +47,7 @@ public interface Target {
     Target DEFAULT = new Target() {
         @Override
         public List<PointProvider> getPoints() {
-            PointProvider provider = new PointProvider() {
-                @Override
-                public PointF getPoint() {
-                    return new PointF(0, 0);
-                }
-
-                @Override
-                public boolean isVisible() {
-                    return true;
-                }
-            };
-            return Collections.singletonList(provider);
+            return Collections.<PointProvider>singletonList(new FixedPointProvider(0, 0));
         }
 
         @Override
@@ -0,0 +1,92 @@
+package com.takusemba.spotlight;
+
+import android.app.Activity;
+import android.support.annotation.LayoutRes;
+import android.support.annotation.NonNull;
+
+/**
+ * Immutable definition of a Target read from a tour definition.
+ * View ids are already resolved, but the views themselves are only looked up when the Target is shown.
+ */
+final class TargetDefinition {
+
+    private final int[] viewIds;
+    private final float radius;
+    private final Shape shape;
+    private final String title;
+    private final String description;
+    @SimpleTarget.Placement
+    private final int placement;
+    @LayoutRes
+    private final int layoutId;
+
+    TargetDefinition(int[] viewIds, float radius, Shape shape, String title, String description,
+                     @SimpleTarget.Placement int placement, @LayoutRes int layoutId) {
+        this.viewIds = viewIds;
+        this.radius = radius;
+        this.shape = shape;
+        this.title = title;
+        this.description = description;
+        this.placement = placement;
+        this.layoutId = layoutId;
+    }
+
+    int[] getViewIds() {
+        return viewIds;
+    }
+
+    float getRadius() {
+        return radius;
+    }
+
+    Shape getShape() {
+        return shape;
+    }
+
+    String getTitle() {
+        return title;
+    }
+
+    String getDescription() {
+        return description;
+    }
+
+    @SimpleTarget.Placement
+    int getPlacement() {
+        return placement;
+    }
+
+    @LayoutRes
+    int getLayoutId() {
+        return layoutId;
+    }
+
+    /**
+     * creates a new Target from this definition, a {@link CustomTarget} if it has a layout,
+     * a {@link SimpleTarget} otherwise
+     */
+    Target createTarget(@NonNull Activity context) {
+        if (layoutId != 0) {
+            CustomTarget.Builder builder = new CustomTarget.Builder(context)
+                    .setView(layoutId)
+                    .setRadius(radius)
+                    .setShape(shape);
+            addPoints(context, builder);
+            return builder.build();
+        }
+        SimpleTarget.Builder builder = new SimpleTarget.Builder(context)
+                .setTitle(title)
+                .setDescription(description)
+                .setPlacement(placement)
+                .setRadius(radius)
+                .setShape(shape);
+        addPoints(context, builder);
+        return builder.build();
+    }
+
+    private void addPoints(Activity context, AbstractBuilder<?, ?> builder) {
+        for (int viewId : viewIds) {
+            builder.addPointProvider(new ViewIdPointProvider(context, viewId));
+        }
+    }
+}
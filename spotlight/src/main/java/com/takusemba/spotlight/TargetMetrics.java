@@ -0,0 +1,91 @@
+package com.takusemba.spotlight;
+
+/**
+ * Frame timings measured while a {@link Target} was shown.
+ * All durations are in nanoseconds.
+ */
+public final class TargetMetrics {
+
+    private final long timeToFirstFrame;
+    private final int frameCount;
+    private final int framesOverBudget;
+    private final long drawDurationP50;
+    private final long drawDurationP95;
+    private final long drawDurationP99;
+    private final long pointResolutionDuration;
+
+    TargetMetrics(long timeToFirstFrame, int frameCount, int framesOverBudget, long drawDurationP50,
+                  long drawDurationP95, long drawDurationP99, long pointResolutionDuration) {
+        this.timeToFirstFrame = timeToFirstFrame;
+        this.frameCount = frameCount;
+        this.framesOverBudget = framesOverBudget;
+        this.drawDurationP50 = drawDurationP50;
+        this.drawDurationP95 = drawDurationP95;
+        this.drawDurationP99 = drawDurationP99;
+        this.pointResolutionDuration = pointResolutionDuration;
+    }
+
+    /**
+     * gets the time from the start of the Target to its first drawn frame
+     *
+     * @return the duration, or -1 if no frame was drawn
+     */
+    public long getTimeToFirstFrame() {
+        return timeToFirstFrame;
+    }
+
+    /**
+     * gets the number of animation frames while the Target was shown
+     */
+    public int getFrameCount() {
+        return frameCount;
+    }
+
+    /**
+     * gets the number of frames which took longer than a frame interval of the display
+     */
+    public int getFramesOverBudget() {
+        return framesOverBudget;
+    }
+
+    /**
+     * gets the median duration of onDraw
+     */
+    public long getDrawDurationP50() {
+        return drawDurationP50;
+    }
+
+    /**
+     * gets the 95th percentile duration of onDraw
+     */
+    public long getDrawDurationP95() {
+        return drawDurationP95;
+    }
+
+    /**
+     * gets the 99th percentile duration of onDraw
+     */
+    public long getDrawDurationP99() {
+        return drawDurationP99;
+    }
+
+    /**
+     * gets the total time spent resolving positions with {@link PointProvider}s
+     */
+    public long getPointResolutionDuration() {
+        return pointResolutionDuration;
+    }
+
+    @Override
+    public String toString() {
+        return "TargetMetrics{"
+                + "timeToFirstFrame=" + timeToFirstFrame
+                + ", frameCount=" + frameCount
+                + ", framesOverBudget=" + framesOverBudget
+                + ", drawDurationP50=" + drawDurationP50
+                + ", drawDurationP95=" + drawDurationP95
+                + ", drawDurationP99=" + drawDurationP99
+                + ", pointResolutionDuration=" + pointResolutionDuration
+                + '}';
+    }
+}
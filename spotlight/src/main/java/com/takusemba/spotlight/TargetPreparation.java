@@ -0,0 +1,136 @@
+package com.takusemba.spotlight;
+
+import android.app.Activity;
+import android.os.Looper;
+import android.os.MessageQueue;
+import android.support.annotation.NonNull;
+import android.support.v4.view.AsyncLayoutInflater;
+
+import java.util.BitSet;
+
+/**
+ * Creates the views of the Targets of a sequence ahead of time, a few at a time: the first one while the Spotlight
+ * fades in, and the next one whenever a Target starts. Tells which of them are ready to be shown without inflating.
+ * Targets which are not ready when they are reached are simply inflated on the main thread as before.
+ */
+final class TargetPreparation {
+
+    /**
+     * number of Targets prepared past the one being shown.
+     * AsyncLayoutInflater only queues a few requests, so preparing the whole sequence would block the main thread.
+     */
+    private static final int PREPARED_AHEAD = 1;
+
+    private final TargetSequence sequence;
+    private final TargetViewPool pool;
+    private final boolean textOnOverlay;
+    private final AsyncLayoutInflater inflater;
+    private final boolean hasFactory;
+    private final BitSet requested = new BitSet();
+    private final BitSet ready = new BitSet();
+    private int waitingIndex = -1;
+    private Runnable waitingAction;
+    private boolean cancelled;
+
+    /**
+     * @param textOnOverlay whether Targets drawing their text on the overlay show no view at all
+     */
+    TargetPreparation(@NonNull Activity context, @NonNull TargetSequence sequence, @NonNull TargetViewPool pool,
+                      boolean textOnOverlay) {
+        this.sequence = sequence;
+        this.pool = pool;
+        this.textOnOverlay = textOnOverlay;
+        inflater = new AsyncLayoutInflater(context);
+        hasFactory = context.getLayoutInflater().getFactory() != null;
+    }
+
+    /**
+     * starts preparing the Target at the given position and the ones right after it,
+     * skipping the ones already requested
+     */
+    void prepareFrom(int index) {
+        for (int i = index, end = Math.min(index + PREPARED_AHEAD + 1, sequence.size()); i < end; i++) {
+            if (!requested.get(i)) {
+                requested.set(i);
+                prepare(i);
+            }
+        }
+    }
+
+    /**
+     * runs an action once the Target at the given position is prepared, immediately if it already is
+     */
+    void runWhenReady(int index, @NonNull Runnable action) {
+        prepareFrom(index);
+        if (ready.get(index)) {
+            action.run();
+        } else {
+            waitingIndex = index;
+            waitingAction = action;
+        }
+    }
+
+    /**
+     * forgets the action waiting for a Target and gives back the views prepared so far,
+     * e.g. when the Spotlight is started again. Nothing of the sequence must be showing.
+     */
+    void cancel() {
+        cancelled = true;
+        waitingIndex = -1;
+        waitingAction = null;
+        for (int i = ready.nextSetBit(0); i >= 0; i = ready.nextSetBit(i + 1)) {
+            LazyView lazyView = LazyView.of(sequence.get(i));
+            if (lazyView != null) {
+                lazyView.releaseView(pool);
+            }
+        }
+    }
+
+    private void prepare(final int index) {
+        Target target = sequence.get(index);
+        final LazyView lazyView = LazyView.of(target);
+        if (lazyView == null || textOnOverlay && OverlayText.of(target) != null) {
+            ready.set(index);
+            return;
+        }
+        // AsyncLayoutInflater ignores the factory of the Activity, so the layouts of the app which may rely on it
+        // are created on the main thread while it is idle instead. layout_spotlight only has plain widgets.
+        if (!hasFactory || !lazyView.needsActivityFactory()) {
+            lazyView.prepareView(pool, inflater, new ReadyAction(index));
+            return;
+        }
+        Looper.myQueue().addIdleHandler(new MessageQueue.IdleHandler() {
+            @Override
+            public boolean queueIdle() {
+                if (!cancelled) {
+                    lazyView.obtainView(pool);
+                    new ReadyAction(index).run();
+                }
+                return false;
+            }
+        });
+    }
+
+    private class ReadyAction implements Runnable {
+
+        private final int index;
+
+        ReadyAction(int index) {
+            this.index = index;
+        }
+
+        @Override
+        public void run() {
+            if (cancelled) {
+                return;
+            }
+            ready.set(index);
+            if (index == waitingIndex) {
+                Runnable action = waitingAction;
+                waitingIndex = -1;
+                waitingAction = null;
+                action.run();
+            }
+        }
+    }
+}
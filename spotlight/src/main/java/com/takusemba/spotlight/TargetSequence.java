@@ -0,0 +1,155 @@
+package com.takusemba.spotlight;
+
+import android.support.annotation.Nullable;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+
+/**
+ * Ordered Targets of a Spotlight with a cursor on the one being shown.
+ * Moving the cursor and appending Targets never shifts the underlying list.
+ */
+final class TargetSequence {
+
+    private static final int NO_INDEX = -1;
+
+    private final List<Target> targets;
+    private int index;
+    private int nextIndex = NO_INDEX;
+    private boolean showing;
+    private boolean jumpedToEnd;
+    private boolean jumped;
+    private BitSet skipped;
+
+    TargetSequence(Target[] targets) {
+        this.targets = new ArrayList<>(Arrays.asList(targets));
+    }
+
+    /**
+     * sets the positions of the Targets which are passed over when the sequence moves on by itself.
+     * Targets can still be shown explicitly with {@link #setNext(int)}.
+     *
+     * @param skipped live set of positions to skip, or null to show every Target
+     */
+    void setSkipped(@Nullable BitSet skipped) {
+        this.skipped = skipped;
+    }
+
+    /**
+     * moves the cursor past the skipped Targets before the first one is shown,
+     * unless it was moved explicitly with {@link #setNext(int)}
+     *
+     * @return true if there's a Target at the cursor
+     */
+    boolean skipToFirst() {
+        if (!jumped) {
+            index = nextShown(index);
+        }
+        return index < targets.size();
+    }
+
+    /**
+     * gets the Target at the cursor
+     *
+     * @return the current Target, or null when the sequence is over
+     */
+    @Nullable
+    Target current() {
+        return index < targets.size() ? targets.get(index) : null;
+    }
+
+    /**
+     * gets the Target at the given position
+     */
+    Target get(int index) {
+        return targets.get(index);
+    }
+
+    /**
+     * gets the position of the cursor
+     */
+    int index() {
+        return index;
+    }
+
+    int size() {
+        return targets.size();
+    }
+
+    /**
+     * whether the current Target has been started and not ended yet
+     */
+    boolean isShowing() {
+        return showing;
+    }
+
+    void setShowing(boolean showing) {
+        this.showing = showing;
+    }
+
+    /**
+     * appends Targets to the end of the sequence, even while it is running
+     */
+    void append(Target[] targets) {
+        this.targets.addAll(Arrays.asList(targets));
+    }
+
+    /**
+     * sets the Target shown after the current one is closed.
+     * moves the cursor immediately when no Target is showing.
+     *
+     * @param index position of the next Target, {@link #size()} to end the sequence
+     */
+    void setNext(int index) {
+        if (index < 0 || index > targets.size()) {
+            throw new IndexOutOfBoundsException("index: " + index + ", size: " + targets.size());
+        }
+        jumpedToEnd = index == targets.size();
+        if (showing) {
+            nextIndex = index;
+        } else {
+            this.index = index;
+            jumped = true;
+        }
+    }
+
+    /**
+     * sets the Target following the current one as the next one, even if it was skipped.
+     * unlike {@link #setNext(int)}, moving on from the last Target ends the sequence as if it ended by itself.
+     */
+    void setNextFollowing() {
+        setNext(Math.min(index + 1, targets.size()));
+        jumpedToEnd = false;
+    }
+
+    /**
+     * whether the sequence was ended with {@link #setNext(int)} rather than by moving past its last Target
+     */
+    boolean isJumpedToEnd() {
+        return jumpedToEnd;
+    }
+
+    /**
+     * whether {@link #advance()} would move the cursor to a Target
+     */
+    boolean hasNext() {
+        return (nextIndex != NO_INDEX ? nextIndex : nextShown(index + 1)) < targets.size();
+    }
+
+    /**
+     * moves the cursor to the Target set by {@link #setNext(int)}, or to the following one
+     *
+     * @return true if there's a Target at the cursor
+     */
+    boolean advance() {
+        index = nextIndex != NO_INDEX ? nextIndex : nextShown(index + 1);
+        nextIndex = NO_INDEX;
+        return index < targets.size();
+    }
+
+    private int nextShown(int from) {
+        return skipped != null ? skipped.nextClearBit(from) : from;
+    }
+}
@@ -0,0 +1,66 @@
+package com.takusemba.spotlight;
+
+import android.support.annotation.LayoutRes;
+import android.util.SparseArray;
+import android.view.View;
+
+import java.util.ArrayDeque;
+
+/**
+ * Pool of inflated Target views keyed by their layout resource,
+ * so that consecutive Targets sharing a layout only rebind it instead of inflating it again.
+ */
+final class TargetViewPool {
+
+    static final int DEFAULT_MAX_SIZE = 2;
+
+    private final SparseArray<ArrayDeque<View>> scraps = new SparseArray<>();
+    private int maxSize = DEFAULT_MAX_SIZE;
+
+    /**
+     * sets how many views are kept for each layout
+     */
+    void setMaxSize(int maxSize) {
+        if (maxSize < 0) {
+            throw new IllegalArgumentException("maxSize must not be negative");
+        }
+        this.maxSize = maxSize;
+        for (int i = 0; i < scraps.size(); i++) {
+            ArrayDeque<View> scrap = scraps.valueAt(i);
+            while (scrap.size() > maxSize) {
+                scrap.pollLast();
+            }
+        }
+    }
+
+    /**
+     * takes a view of the given layout out of this pool
+     *
+     * @return the pooled view, or null if there's none
+     */
+    View acquire(@LayoutRes int layoutId) {
+        ArrayDeque<View> scrap = scraps.get(layoutId);
+        return scrap == null ? null : scrap.pollFirst();
+    }
+
+    /**
+     * puts a view of the given layout back to this pool, unless it is already full
+     */
+    void release(@LayoutRes int layoutId, View view) {
+        ArrayDeque<View> scrap = scraps.get(layoutId);
+        if (scrap == null) {
+            scrap = new ArrayDeque<>(maxSize);
+            scraps.put(layoutId, scrap);
+        }
+        if (scrap.size() < maxSize && !scrap.contains(view)) {
+            scrap.addFirst(view);
+        }
+    }
+
+    /**
+     * drops every pooled view
+     */
+    void clear() {
+        scraps.clear();
+    }
+}
@@ -0,0 +1,85 @@
+package com.takusemba.spotlight;
+
+import android.graphics.Typeface;
+import android.text.Layout;
+import android.text.StaticLayout;
+import android.text.TextPaint;
+import android.util.LruCache;
+
+/**
+ * Cache of measured text layouts keyed by text, width and style,
+ * so that the text of a Target is laid out once, possibly on a background thread, and then only drawn.
+ */
+final class TextLayoutCache {
+
+    private static final int MAX_SIZE = 64;
+
+    private static final LruCache<Key, StaticLayout> LAYOUTS = new LruCache<>(MAX_SIZE);
+
+    private TextLayoutCache() {
+    }
+
+    /**
+     * gets the layout of a text, creating it the first time. Safe to call from any thread.
+     *
+     * @param text  the text to lay out
+     * @param paint style of the text, which must not be changed afterwards
+     * @param width width the text wraps at
+     * @return the layout of the text
+     */
+    static StaticLayout get(CharSequence text, TextPaint paint, int width) {
+        width = Math.max(0, width);
+        Key key = new Key(text.toString(), width, paint);
+        StaticLayout layout = LAYOUTS.get(key);
+        if (layout == null) {
+            // StaticLayout.Builder is API 23, the constructor does the same on every version
+            layout = new StaticLayout(text, paint, width, Layout.Alignment.ALIGN_NORMAL, 1f, 0f, true);
+            LAYOUTS.put(key, layout);
+        }
+        return layout;
+    }
+
+    /**
+     * what a layout depends on, compared field by field instead of being concatenated into a String on every lookup
+     */
+    private static final class Key {
+
+        private final String text;
+        private final int width;
+        private final float textSize;
+        private final int style;
+        private final int color;
+
+        Key(String text, int width, TextPaint paint) {
+            Typeface typeface = paint.getTypeface();
+            this.text = text;
+            this.width = width;
+            this.textSize = paint.getTextSize();
+            this.style = typeface != null ? typeface.getStyle() : Typeface.NORMAL;
+            this.color = paint.getColor();
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            Key key = (Key) o;
+            return width == key.width && Float.compare(textSize, key.textSize) == 0 && style == key.style
+                    && color == key.color && text.equals(key.text);
+        }
+
+        @Override
+        public int hashCode() {
+            int result = text.hashCode();
+            result = 31 * result + width;
+            result = 31 * result + Float.floatToIntBits(textSize);
+            result = 31 * result + style;
+            result = 31 * result + color;
+            return result;
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package com.takusemba.spotlight;
+
+import android.app.Activity;
+import android.support.annotation.NonNull;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Immutable tour read by {@link TourLoader}.
+ * The same definition can be shown any number of times, each time with new Targets.
+ */
+public final class TourDefinition {
+
+    private final List<TargetDefinition> targets;
+    private final long parseTimeNanos;
+
+    TourDefinition(List<TargetDefinition> targets, long parseTimeNanos) {
+        this.targets = Collections.unmodifiableList(targets);
+        this.parseTimeNanos = parseTimeNanos;
+    }
+
+    /**
+     * gets the number of Targets of this tour
+     */
+    public int size() {
+        return targets.size();
+    }
+
+    /**
+     * gets the definition of the Target at the given position
+     */
+    TargetDefinition get(int index) {
+        return targets.get(index);
+    }
+
+    /**
+     * gets how long reading and parsing the definition took, on a background thread
+     */
+    public long getParseTimeNanos() {
+        return parseTimeNanos;
+    }
+
+    /**
+     * creates the Targets of this tour, to be passed to {@link Spotlight#start(Activity, Target[])}
+     *
+     * @param context Activity holding the views the Targets point at
+     * @return the Targets in the order of the definition
+     */
+    public Target[] createTargets(@NonNull Activity context) {
+        Target[] created = new Target[targets.size()];
+        for (int i = 0; i < created.length; i++) {
+            created[i] = targets.get(i).createTarget(context);
+        }
+        return created;
+    }
+}
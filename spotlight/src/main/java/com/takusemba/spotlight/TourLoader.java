@@ -0,0 +1,298 @@
+package com.takusemba.spotlight;
+
+import android.content.Context;
+import android.content.res.Resources;
+import android.os.AsyncTask;
+import android.os.Handler;
+import android.os.Looper;
+import android.support.annotation.NonNull;
+import android.support.annotation.RawRes;
+import android.util.JsonReader;
+import android.util.JsonToken;
+import android.util.LruCache;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Loads tours from JSON definitions in the assets or the raw resources, e.g.
+ * <pre>
+ * {
+ *   "targets": [
+ *     {
+ *       "views": ["fab", "toolbar"],
+ *       "shape": "circle", "radius": 100,
+ *       "title": "title", "description": "description", "placement": "below"
+ *     },
+ *     {
+ *       "views": ["image"],
+ *       "shape": "roundedRect", "width": 300, "height": 200, "cornerRadius": 24,
+ *       "layout": "layout_target"
+ *     }
+ *   ]
+ * }
+ * </pre>
+ * "views" are names of view ids and "layout" the name of a layout, which makes it a {@link CustomTarget}.
+ * "shape" is one of circle, oval and roundedRect, and sizes are in pixels.
+ * The definition is stream-parsed on a background thread, and the last parsed tours are cached,
+ * so loading the same definition again is delivered without parsing.
+ * Raw resources are cached for each locale of the application. Call {@link #clearCache()} when other
+ * configuration changes, e.g. the night mode, select another version of a definition.
+ */
+public final class TourLoader {
+
+    private static final float DEFAULT_RADIUS = 100f;
+
+    /**
+     * number of parsed tours kept, the least recently loaded ones are dropped first
+     */
+    private static final int MAX_CACHE_SIZE = 8;
+
+    private static final LruCache<String, TourDefinition> CACHE = new LruCache<>(MAX_CACHE_SIZE);
+
+    private TourLoader() {
+    }
+
+    /**
+     * Loads a tour from a file in the assets
+     *
+     * @param context  any Context, only its application Context is kept
+     * @param path     path of the definition in the assets
+     * @param listener notified on the main thread, immediately if the tour is cached
+     */
+    public static void loadAsset(@NonNull Context context, @NonNull final String path,
+                                 @NonNull OnTourLoadedListener listener) {
+        load(context, "asset:" + path, new Source() {
+            @Override
+            public InputStream open(Context context) throws IOException {
+                return context.getAssets().open(path);
+            }
+        }, listener);
+    }
+
+    /**
+     * Loads a tour from a raw resource
+     *
+     * @param context  any Context, only its application Context is kept
+     * @param rawId    id of the definition in the raw resources
+     * @param listener notified on the main thread, immediately if the tour is cached
+     */
+    public static void loadResource(@NonNull Context context, @RawRes final int rawId,
+                                    @NonNull OnTourLoadedListener listener) {
+        // localized raw resources resolve to another file once the locale changes, so each locale is cached apart
+        load(context, "raw:" + rawId + ":" + getLocale(context.getApplicationContext()), new Source() {
+            @Override
+            public InputStream open(Context context) {
+                return context.getResources().openRawResource(rawId);
+            }
+        }, listener);
+    }
+
+    @SuppressWarnings("deprecation")
+    private static Locale getLocale(Context context) {
+        return context.getResources().getConfiguration().locale;
+    }
+
+    /**
+     * Removes every parsed tour from the cache
+     */
+    public static void clearCache() {
+        CACHE.evictAll();
+    }
+
+    private static void load(Context context, final String key, final Source source,
+                             final OnTourLoadedListener listener) {
+        TourDefinition cached = CACHE.get(key);
+        if (cached != null) {
+            listener.onTourLoaded(cached);
+            return;
+        }
+        final Context appContext = context.getApplicationContext();
+        final Handler handler = new Handler(Looper.getMainLooper());
+        AsyncTask.THREAD_POOL_EXECUTOR.execute(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    final TourDefinition tour = read(appContext, source);
+                    CACHE.put(key, tour);
+                    handler.post(new Runnable() {
+                        @Override
+                        public void run() {
+                            listener.onTourLoaded(tour);
+                        }
+                    });
+                } catch (final IOException | RuntimeException e) {
+                    handler.post(new Runnable() {
+                        @Override
+                        public void run() {
+                            listener.onTourFailed(e);
+                        }
+                    });
+                }
+            }
+        });
+    }
+
+    private static TourDefinition read(Context context, Source source) throws IOException {
+        return parse(new InputStreamReader(source.open(context), "UTF-8"), context.getResources(),
+                context.getPackageName());
+    }
+
+    /**
+     * parses a definition, measuring how long it takes, and closes the reader
+     *
+     * @param packageName package the names of the views and layouts are resolved in
+     */
+    static TourDefinition parse(Reader in, Resources resources, String packageName) throws IOException {
+        long start = System.nanoTime();
+        JsonReader reader = new JsonReader(in);
+        try {
+            List<TargetDefinition> targets = readTour(reader, resources, packageName);
+            return new TourDefinition(targets, System.nanoTime() - start);
+        } finally {
+            reader.close();
+        }
+    }
+
+    private static List<TargetDefinition> readTour(JsonReader reader, Resources resources, String packageName)
+            throws IOException {
+        List<TargetDefinition> targets = new ArrayList<>();
+        reader.beginObject();
+        while (reader.hasNext()) {
+            if ("targets".equals(reader.nextName())) {
+                reader.beginArray();
+                while (reader.hasNext()) {
+                    targets.add(readTarget(reader, resources, packageName));
+                }
+                reader.endArray();
+            } else {
+                reader.skipValue();
+            }
+        }
+        reader.endObject();
+        return targets;
+    }
+
+    private static TargetDefinition readTarget(JsonReader reader, Resources resources, String packageName)
+            throws IOException {
+        List<String> views = new ArrayList<>();
+        String shape = "circle";
+        float radius = DEFAULT_RADIUS;
+        float width = 0;
+        float height = 0;
+        float cornerRadius = 0;
+        String title = null;
+        String description = null;
+        String placement = null;
+        String layout = null;
+        reader.beginObject();
+        while (reader.hasNext()) {
+            String name = reader.nextName();
+            if (reader.peek() == JsonToken.NULL) {
+                reader.nextNull();
+                continue;
+            }
+            switch (name) {
+                case "views":
+                    reader.beginArray();
+                    while (reader.hasNext()) {
+                        views.add(reader.nextString());
+                    }
+                    reader.endArray();
+                    break;
+                case "shape":
+                    shape = reader.nextString();
+                    break;
+                case "radius":
+                    radius = (float) reader.nextDouble();
+                    break;
+                case "width":
+                    width = (float) reader.nextDouble();
+                    break;
+                case "height":
+                    height = (float) reader.nextDouble();
+                    break;
+                case "cornerRadius":
+                    cornerRadius = (float) reader.nextDouble();
+                    break;
+                case "title":
+                    title = reader.nextString();
+                    break;
+                case "description":
+                    description = reader.nextString();
+                    break;
+                case "placement":
+                    placement = reader.nextString();
+                    break;
+                case "layout":
+                    layout = reader.nextString();
+                    break;
+                default:
+                    reader.skipValue();
+                    break;
+            }
+        }
+        reader.endObject();
+        int[] viewIds = new int[views.size()];
+        for (int i = 0; i < viewIds.length; i++) {
+            viewIds[i] = getIdentifier(resources, views.get(i), "id", packageName);
+        }
+        int layoutId = layout != null ? getIdentifier(resources, layout, "layout", packageName) : 0;
+        return new TargetDefinition(viewIds, radius, createShape(shape, radius, width, height, cornerRadius),
+                title, description, parsePlacement(placement), layoutId);
+    }
+
+    private static int getIdentifier(Resources resources, String name, String type, String packageName) {
+        int id = resources.getIdentifier(name, type, packageName);
+        if (id == 0) {
+            throw new IllegalArgumentException("unknown " + type + ": " + name);
+        }
+        return id;
+    }
+
+    private static Shape createShape(String shape, float radius, float width, float height, float cornerRadius) {
+        switch (shape) {
+            case "circle":
+                return Shape.circle(radius);
+            case "oval":
+                return Shape.oval(width, height);
+            case "roundedRect":
+                return Shape.roundedRect(width, height, cornerRadius);
+            default:
+                throw new IllegalArgumentException("unknown shape: " + shape);
+        }
+    }
+
+    @SimpleTarget.Placement
+    private static int parsePlacement(String placement) {
+        if (placement == null) {
+            return SimpleTarget.PLACEMENT_AUTO;
+        }
+        switch (placement) {
+            case "auto":
+                return SimpleTarget.PLACEMENT_AUTO;
+            case "above":
+                return SimpleTarget.PLACEMENT_ABOVE;
+            case "below":
+                return SimpleTarget.PLACEMENT_BELOW;
+            case "left":
+                return SimpleTarget.PLACEMENT_LEFT;
+            case "right":
+                return SimpleTarget.PLACEMENT_RIGHT;
+            default:
+                throw new IllegalArgumentException("unknown placement: " + placement);
+        }
+    }
+
+    /**
+     * Opens the stream of a definition
+     */
+    private interface Source {
+        InputStream open(Context context) throws IOException;
+    }
+}
@@ -0,0 +1,318 @@
+package com.takusemba.spotlight;
+
+import android.content.Context;
+import android.content.SharedPreferences;
+import android.os.Handler;
+import android.os.HandlerThread;
+import android.os.Looper;
+import android.os.Process;
+import android.support.annotation.MainThread;
+import android.support.annotation.NonNull;
+import android.support.annotation.VisibleForTesting;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Remembers which Targets of which tours were already shown, see {@link Spotlight#setTourId(String)}.
+ * The progress is read once per process on a background thread into an in-memory bitset per tour,
+ * so lookups never touch the disk, and changes are written in batches on the same background thread.
+ * Every method must be called on the main thread.
+ */
+public final class TourProgressStore {
+
+    private static final String PREFERENCES_NAME = "spotlight_progress";
+    private static final String TARGETS_PREFIX = "targets:";
+    private static final String TOUR_PREFIX = "tour:";
+    private static final String COMPLETED = "completed";
+    /**
+     * delay during which changes are gathered before being written
+     */
+    private static final long WRITE_DELAY = 500L;
+
+    private static TourProgressStore instance;
+
+    private final Context context;
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+    private final Handler workerHandler;
+    private final Map<String, BitSet> targets = new HashMap<>();
+    private final Set<String> completedTours = new HashSet<>();
+    private final Set<String> dirtyTours = new HashSet<>();
+    private final Set<String> resetTours = new HashSet<>();
+    private final List<Runnable> pendingActions = new ArrayList<>();
+    private final Runnable writeRunnable = new Runnable() {
+        @Override
+        public void run() {
+            write();
+        }
+    };
+    private boolean loaded;
+    private boolean writeScheduled;
+    /**
+     * only touched on the background thread, where it is opened
+     */
+    private SharedPreferences preferences;
+
+    private TourProgressStore(Context context) {
+        this(context, startWorker());
+    }
+
+    /**
+     * @param workerLooper looper of the background thread reading and writing the progress
+     */
+    TourProgressStore(Context context, Looper workerLooper) {
+        this.context = context;
+        workerHandler = new Handler(workerLooper);
+        workerHandler.post(new Runnable() {
+            @Override
+            public void run() {
+                read();
+            }
+        });
+    }
+
+    private static Looper startWorker() {
+        HandlerThread thread = new HandlerThread("SpotlightProgress", Process.THREAD_PRIORITY_BACKGROUND);
+        thread.start();
+        return thread.getLooper();
+    }
+
+    /**
+     * replaces the store of this process, e.g. with one reading on a looper driven by tests
+     */
+    @VisibleForTesting
+    static void setInstance(TourProgressStore store) {
+        instance = store;
+    }
+
+    /**
+     * gets the store of this process, starting to load it the first time
+     *
+     * @param context any Context, only its application Context is kept
+     * @return the store
+     */
+    @MainThread
+    public static TourProgressStore get(@NonNull Context context) {
+        if (instance == null) {
+            instance = new TourProgressStore(context.getApplicationContext());
+        }
+        return instance;
+    }
+
+    /**
+     * starts loading the progress, e.g. when the application starts,
+     * so that the lookups made before showing a tour already know about the previous processes
+     *
+     * @param context any Context, only its application Context is kept
+     */
+    @MainThread
+    public static void preload(@NonNull Context context) {
+        get(context);
+    }
+
+    /**
+     * whether the progress was loaded. lookups before that only know about this process.
+     */
+    public boolean isLoaded() {
+        return loaded;
+    }
+
+    /**
+     * runs an action once the progress is loaded, immediately if it already is
+     *
+     * @param action action to run on the main thread
+     */
+    public void runWhenLoaded(@NonNull Runnable action) {
+        if (loaded) {
+            action.run();
+        } else {
+            pendingActions.add(action);
+        }
+    }
+
+    /**
+     * whether the Target at the given position of a tour was shown until its end.
+     * returns false for what previous processes stored until the progress is loaded,
+     * see {@link #preload(Context)} and {@link #runWhenLoaded(Runnable)}.
+     */
+    public boolean isTargetCompleted(@NonNull String tourId, int index) {
+        BitSet bits = targets.get(tourId);
+        return bits != null && bits.get(index);
+    }
+
+    /**
+     * whether a tour was shown until its last Target closed, or all its Targets were shown.
+     * returns false for what previous processes stored until the progress is loaded,
+     * see {@link #preload(Context)} and {@link #runWhenLoaded(Runnable)}.
+     */
+    public boolean isTourCompleted(@NonNull String tourId) {
+        return completedTours.contains(tourId);
+    }
+
+    /**
+     * forgets the progress of a tour, so that it's shown from the beginning again
+     */
+    public void reset(@NonNull String tourId) {
+        BitSet bits = targets.get(tourId);
+        if (bits != null) {
+            bits.clear();
+        }
+        completedTours.remove(tourId);
+        if (!loaded) {
+            resetTours.add(tourId);
+        }
+        scheduleWrite(tourId);
+    }
+
+    /**
+     * gets the live bitset of the completed Targets of a tour, which is filled in once the progress is loaded
+     */
+    BitSet getCompletedTargets(String tourId) {
+        BitSet bits = targets.get(tourId);
+        if (bits == null) {
+            bits = new BitSet();
+            targets.put(tourId, bits);
+        }
+        return bits;
+    }
+
+    void markTargetCompleted(String tourId, int index) {
+        BitSet bits = getCompletedTargets(tourId);
+        if (!bits.get(index)) {
+            bits.set(index);
+            scheduleWrite(tourId);
+        }
+    }
+
+    void markTourCompleted(String tourId) {
+        if (completedTours.add(tourId)) {
+            scheduleWrite(tourId);
+        }
+    }
+
+    /**
+     * coalesces the changes made within {@link #WRITE_DELAY} into a single write
+     */
+    private void scheduleWrite(String tourId) {
+        dirtyTours.add(tourId);
+        if (!writeScheduled) {
+            writeScheduled = true;
+            mainHandler.postDelayed(writeRunnable, WRITE_DELAY);
+        }
+    }
+
+    /**
+     * encodes the changed tours on the main thread, and commits them on the background thread
+     */
+    private void write() {
+        writeScheduled = false;
+        if (!loaded) {
+            // merged with the stored progress once loaded, and written then
+            return;
+        }
+        final Map<String, String> values = new HashMap<>();
+        for (String tourId : dirtyTours) {
+            BitSet bits = targets.get(tourId);
+            values.put(TARGETS_PREFIX + tourId, bits != null && !bits.isEmpty() ? encode(bits) : null);
+            values.put(TOUR_PREFIX + tourId, completedTours.contains(tourId) ? COMPLETED : null);
+        }
+        dirtyTours.clear();
+        workerHandler.post(new Runnable() {
+            @Override
+            public void run() {
+                SharedPreferences.Editor editor = preferences.edit();
+                for (Map.Entry<String, String> entry : values.entrySet()) {
+                    if (entry.getValue() != null) {
+                        editor.putString(entry.getKey(), entry.getValue());
+                    } else {
+                        editor.remove(entry.getKey());
+                    }
+                }
+                editor.commit();
+            }
+        });
+    }
+
+    /**
+     * reads the stored progress on the background thread, and hands it over to the main thread
+     */
+    private void read() {
+        final Map<String, BitSet> storedTargets = new HashMap<>();
+        final Set<String> storedTours = new HashSet<>();
+        preferences = context.getSharedPreferences(PREFERENCES_NAME, Context.MODE_PRIVATE);
+        for (Map.Entry<String, ?> entry : preferences.getAll().entrySet()) {
+            String key = entry.getKey();
+            if (!(entry.getValue() instanceof String)) {
+                continue;
+            }
+            if (key.startsWith(TARGETS_PREFIX)) {
+                storedTargets.put(key.substring(TARGETS_PREFIX.length()), decode((String) entry.getValue()));
+            } else if (key.startsWith(TOUR_PREFIX)) {
+                storedTours.add(key.substring(TOUR_PREFIX.length()));
+            }
+        }
+        mainHandler.post(new Runnable() {
+            @Override
+            public void run() {
+                onLoaded(storedTargets, storedTours);
+            }
+        });
+    }
+
+    private void onLoaded(Map<String, BitSet> storedTargets, Set<String> storedTours) {
+        for (Map.Entry<String, BitSet> entry : storedTargets.entrySet()) {
+            if (!resetTours.contains(entry.getKey())) {
+                // the bitsets handed out before loading stay the live ones
+                getCompletedTargets(entry.getKey()).or(entry.getValue());
+            }
+        }
+        storedTours.removeAll(resetTours);
+        completedTours.addAll(storedTours);
+        resetTours.clear();
+        loaded = true;
+        if (!dirtyTours.isEmpty()) {
+            write();
+        }
+        for (Runnable action : pendingActions) {
+            action.run();
+        }
+        pendingActions.clear();
+    }
+
+    /**
+     * writes the positions of a bitset as a comma separated list
+     */
+    static String encode(BitSet bits) {
+        StringBuilder builder = new StringBuilder();
+        for (int i = bits.nextSetBit(0); i >= 0; i = bits.nextSetBit(i + 1)) {
+            if (builder.length() > 0) {
+                builder.append(',');
+            }
+            builder.append(i);
+        }
+        return builder.toString();
+    }
+
+    /**
+     * reads the positions written by {@link #encode(BitSet)}, skipping anything else
+     */
+    static BitSet decode(String value) {
+        BitSet bits = new BitSet();
+        if (value.isEmpty()) {
+            return bits;
+        }
+        for (String index : value.split(",")) {
+            try {
+                bits.set(Integer.parseInt(index));
+            } catch (NumberFormatException | IndexOutOfBoundsException ignored) {
+                // skips what was not written by this store
+            }
+        }
+        return bits;
+    }
+}
@@ -0,0 +1,64 @@
+package com.takusemba.spotlight;
+
+import android.app.Activity;
+import android.graphics.PointF;
+import android.support.annotation.IdRes;
+import android.support.annotation.NonNull;
+import android.view.View;
+
+import java.lang.ref.WeakReference;
+
+/**
+ * {@link PointProvider} anchored to the center of a view which is only looked up by its id
+ * the first time the position is needed, so it can be created before the view exists.
+ * The view found is held weakly, so a Target kept around doesn't leak it.
+ */
+class ViewIdPointProvider extends AbstractPointProvider {
+
+    private final int[] location = new int[2];
+    private final WeakReference<Activity> contextWeakReference;
+    @IdRes
+    private final int viewId;
+    private WeakReference<View> viewWeakReference;
+
+    ViewIdPointProvider(@NonNull Activity context, @IdRes int viewId) {
+        this.contextWeakReference = new WeakReference<>(context);
+        this.viewId = viewId;
+    }
+
+    @Override
+    public void getPoint(@NonNull PointF out) {
+        View view = findView();
+        if (view == null) {
+            out.set(0, 0);
+            return;
+        }
+        view.getLocationInWindow(location);
+        int x = location[0] + view.getWidth() / 2;
+        int y = location[1] + view.getHeight() / 2;
+        out.set(x, y);
+    }
+
+    @Override
+    public boolean isVisible() {
+        View view = findView();
+        return view != null && view.getVisibility() == View.VISIBLE;
+    }
+
+    @Override
+    boolean isCacheable() {
+        return true;
+    }
+
+    private View findView() {
+        View view = viewWeakReference != null ? viewWeakReference.get() : null;
+        if (view == null) {
+            Activity context = contextWeakReference.get();
+            if (context != null) {
+                view = context.findViewById(viewId);
+                viewWeakReference = view != null ? new WeakReference<>(view) : null;
+            }
+        }
+        return view;
+    }
+}
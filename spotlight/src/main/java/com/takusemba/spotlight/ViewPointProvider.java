@@ -0,0 +1,50 @@
+package com.takusemba.spotlight;
+
+import android.graphics.PointF;
+import android.support.annotation.NonNull;
+import android.view.View;
+
+/**
+ * {@link PointProvider} anchored to the center of a view.
+ * The position is cached by {@link PointBuffer} and only read again after layout or scroll changes,
+ * or before every frame when it is tracking. A view moved by its translation, e.g. by an animation,
+ * neither lays out nor scrolls, so it is only followed when tracking.
+ */
+class ViewPointProvider extends AbstractPointProvider {
+
+    private final int[] location = new int[2];
+    private final View view;
+    private boolean tracking;
+
+    ViewPointProvider(@NonNull View view, boolean tracking) {
+        this.view = view;
+        this.tracking = tracking;
+    }
+
+    void setTracking(boolean tracking) {
+        this.tracking = tracking;
+    }
+
+    @Override
+    public void getPoint(@NonNull PointF out) {
+        view.getLocationInWindow(location);
+        int x = location[0] + view.getWidth() / 2;
+        int y = location[1] + view.getHeight() / 2;
+        out.set(x, y);
+    }
+
+    @Override
+    public boolean isVisible() {
+        return view.getVisibility() == View.VISIBLE;
+    }
+
+    @Override
+    boolean isCacheable() {
+        return true;
+    }
+
+    @Override
+    boolean isTracking() {
+        return tracking;
+    }
+}
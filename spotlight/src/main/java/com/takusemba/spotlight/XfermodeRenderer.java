@@ -0,0 +1,48 @@
+package com.takusemba.spotlight;
+
+import android.graphics.Canvas;
+import android.graphics.Paint;
+import android.graphics.Path;
+import android.graphics.PorterDuff;
+import android.graphics.PorterDuffXfermode;
+import android.view.View;
+
+/**
+ * Renderer which clears the shapes with {@link PorterDuff.Mode#CLEAR}.
+ * Needs an offscreen layer of the size of the screen.
+ */
+class XfermodeRenderer implements SpotlightRenderer {
+
+    private final Paint spotPaint = new Paint();
+    private final Path batch = new Path();
+    private boolean batched;
+
+    XfermodeRenderer() {
+        spotPaint.setXfermode(new PorterDuffXfermode(PorterDuff.Mode.CLEAR));
+    }
+
+    @Override
+    public int getLayerType() {
+        return View.LAYER_TYPE_HARDWARE;
+    }
+
+    @Override
+    public void draw(Canvas canvas, int width, int height, Paint background, PointBuffer points,
+                     Shape shape, float scale, boolean animating) {
+        canvas.drawRect(0, 0, width, height, background);
+        if (shape == null || scale <= 0) {
+            return;
+        }
+        shape.drawAll(canvas, points, scale, spotPaint, batched ? batch : null);
+    }
+
+    @Override
+    public void setBatched(boolean batched) {
+        this.batched = batched;
+    }
+
+    @Override
+    public void release() {
+        batch.rewind();
+    }
+}
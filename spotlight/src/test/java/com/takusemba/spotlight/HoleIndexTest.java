@@ -0,0 +1,94 @@
+package com.takusemba.spotlight;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+
+public class HoleIndexTest {
+
+    private final HoleIndex index = new HoleIndex();
+    private final Shape circle = Shape.circle(10);
+
+    @Test
+    public void findsHoleUnderPosition() {
+        PointBuffer points = resolved(new TestPointProvider(100, 100), new TestPointProvider(300, 100));
+
+        assertEquals(0, index.findHole(points, circle, 1f, 105, 95));
+        assertEquals(1, index.findHole(points, circle, 1f, 300, 109));
+        assertEquals(-1, index.findHole(points, circle, 1f, 200, 100));
+        assertEquals(-1, index.findHole(points, circle, 1f, -50, -50));
+    }
+
+    @Test
+    public void followsScale() {
+        PointBuffer points = resolved(new TestPointProvider(100, 100));
+
+        assertEquals(-1, index.findHole(points, circle, 1f, 115, 100));
+        assertEquals(0, index.findHole(points, circle, 2f, 115, 100));
+        assertEquals(-1, index.findHole(points, circle, 0f, 100, 100));
+    }
+
+    @Test
+    public void skipsHiddenPoints() {
+        TestPointProvider hidden = new TestPointProvider(100, 100);
+        hidden.visible = false;
+        PointBuffer points = resolved(hidden, new TestPointProvider(300, 100));
+
+        assertEquals(-1, index.findHole(points, circle, 1f, 100, 100));
+        assertEquals(1, index.findHole(points, circle, 1f, 300, 100));
+    }
+
+    @Test
+    public void rebuildsWhenPointsMove() {
+        TestPointProvider point = new TestPointProvider(100, 100);
+        PointBuffer points = resolved(point);
+        assertEquals(0, index.findHole(points, circle, 1f, 100, 100));
+
+        point.x = 500;
+        points.update();
+
+        assertEquals(-1, index.findHole(points, circle, 1f, 100, 100));
+        assertEquals(0, index.findHole(points, circle, 1f, 500, 100));
+    }
+
+    @Test
+    public void matchesLinearSearch() {
+        Random random = new Random(42);
+        List<PointProvider> providers = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            providers.add(new TestPointProvider(random.nextFloat() * 2000, random.nextFloat() * 3000));
+        }
+        PointBuffer points = new PointBuffer();
+        points.set(providers);
+        points.update();
+
+        for (int i = 0; i < 2000; i++) {
+            float x = random.nextFloat() * 2100 - 50;
+            float y = random.nextFloat() * 3100 - 50;
+            int expected = -1;
+            for (int j = 0; j < points.size() && expected < 0; j++) {
+                if (circle.contains(x - points.getX(j), y - points.getY(j), 1f)) {
+                    expected = j;
+                }
+            }
+            int found = index.findHole(points, circle, 1f, x, y);
+            // overlapping holes may be found in any order, but a hole must be found exactly when one contains it
+            assertEquals(expected >= 0, found >= 0);
+            if (found >= 0) {
+                assertEquals(true, circle.contains(x - points.getX(found), y - points.getY(found), 1f));
+            }
+        }
+    }
+
+    private static PointBuffer resolved(PointProvider... providers) {
+        PointBuffer points = new PointBuffer();
+        points.set(Arrays.asList(providers));
+        points.update();
+        return points;
+    }
+}
@@ -0,0 +1,85 @@
+package com.takusemba.spotlight;
+
+import android.graphics.Path;
+import android.graphics.RectF;
+import android.graphics.Region;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import java.util.Arrays;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assume.assumeFalse;
+import static org.junit.Assume.assumeTrue;
+
+@RunWith(RobolectricTestRunner.class)
+@Config(constants = BuildConfig.class, sdk = 25)
+public class PathShapeTest {
+
+    private Path path;
+    private Shape shape;
+
+    @Before
+    public void setUp() {
+        path = new Path();
+        path.addRect(-50, -25, 50, 25, Path.Direction.CW);
+        // the graphics of the runtime the tests run on must measure and rasterize paths
+        RectF bounds = new RectF();
+        path.computeBounds(bounds, true);
+        assumeFalse(bounds.isEmpty());
+        Region probe = new Region();
+        probe.setPath(path, new Region(-50, -25, 50, 25));
+        assumeTrue(probe.contains(0, 0));
+        shape = Shape.path(path);
+    }
+
+    @Test
+    public void containsPathOnFirstTouch() {
+        assertTrue(shape.contains(0, 0, 1f));
+        assertTrue(shape.contains(49, 24, 1f));
+        assertTrue(shape.contains(-50, -25, 1f));
+        assertFalse(shape.contains(60, 0, 1f));
+        assertFalse(shape.contains(0, -30, 1f));
+    }
+
+    @Test
+    public void buildsRegionAtFullScaleWhateverTheFirstScale() {
+        assertFalse(shape.contains(0, 0, 0f));
+        assertFalse(shape.contains(30, 0, 0.5f));
+        assertTrue(shape.contains(20, 0, 0.5f));
+        assertTrue(shape.contains(45, 0, 1f));
+        assertFalse(shape.contains(45, 0, 0.5f));
+    }
+
+    @Test
+    public void ignoresChangesToPathAfterCreation() {
+        path.reset();
+        path.addRect(-200, -200, 200, 200, Path.Direction.CW);
+
+        assertTrue(shape.contains(0, 0, 1f));
+        assertFalse(shape.contains(100, 0, 1f));
+    }
+
+    @Test
+    public void isNeverBatched() {
+        TestPointProvider hidden = new TestPointProvider(300, 100);
+        hidden.visible = false;
+        PointBuffer points = new PointBuffer();
+        points.set(Arrays.<PointProvider>asList(
+                new TestPointProvider(100, 100), hidden, new TestPointProvider(500, 100)));
+        points.update();
+        TestCanvas canvas = new TestCanvas();
+
+        shape.drawAll(canvas, points, 1f, null, new Path());
+
+        assertFalse(shape.canBatch());
+        // one path per visible point instead of the merged one, which would lose the fill type of the shape
+        assertEquals(2, canvas.drawCount);
+    }
+}
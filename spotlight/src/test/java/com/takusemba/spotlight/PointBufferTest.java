@@ -0,0 +1,258 @@
+package com.takusemba.spotlight;
+
+import android.graphics.Paint;
+
+import org.junit.Test;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.Arrays;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assume.assumeTrue;
+
+public class PointBufferTest {
+
+    private static final float DELTA = 0.001f;
+
+    @Test
+    public void updateResolvesPositionsAndVisibility() {
+        TestPointProvider hidden = new TestPointProvider(30, 40);
+        hidden.visible = false;
+        PointBuffer buffer = buffer(new TestPointProvider(10, 20), hidden);
+
+        buffer.update();
+
+        assertEquals(2, buffer.size());
+        assertEquals(10, buffer.getX(0), DELTA);
+        assertEquals(20, buffer.getY(0), DELTA);
+        assertTrue(buffer.isVisible(0));
+        assertFalse(buffer.isVisible(1));
+        // hidden points are not resolved
+        assertEquals(0, hidden.resolveCount);
+    }
+
+    @Test
+    public void cacheablePointIsOnlyResolvedAfterInvalidate() {
+        TestPointProvider point = new TestPointProvider(10, 20);
+        point.cacheable = true;
+        PointBuffer buffer = buffer(point);
+        buffer.update();
+
+        point.x = 50;
+        buffer.update();
+        assertEquals(1, point.resolveCount);
+        assertEquals(10, buffer.getX(0), DELTA);
+
+        buffer.invalidate();
+        buffer.update();
+        assertEquals(2, point.resolveCount);
+        assertEquals(50, buffer.getX(0), DELTA);
+    }
+
+    @Test
+    public void cacheablePointIsResolvedWhenShownAgain() {
+        TestPointProvider point = new TestPointProvider(10, 20);
+        point.cacheable = true;
+        PointBuffer buffer = buffer(point);
+        buffer.update();
+
+        point.visible = false;
+        buffer.update();
+        point.x = 50;
+        point.visible = true;
+        buffer.update();
+
+        assertTrue(buffer.isVisible(0));
+        assertEquals(50, buffer.getX(0), DELTA);
+    }
+
+    @Test
+    public void modCountOnlyChangesWithPositions() {
+        TestPointProvider point = new TestPointProvider(10, 20);
+        PointBuffer buffer = buffer(point);
+        buffer.update();
+        int modCount = buffer.getModCount();
+
+        buffer.update();
+        assertEquals(modCount, buffer.getModCount());
+
+        point.y = 30;
+        buffer.update();
+        assertNotEquals(modCount, buffer.getModCount());
+    }
+
+    @Test
+    public void interpolatesMatchingPoints() {
+        PointBuffer from = resolved(new TestPointProvider(0, 0), new TestPointProvider(100, 100));
+        PointBuffer to = resolved(new TestPointProvider(100, 0), new TestPointProvider(100, 200));
+        PointBuffer buffer = new PointBuffer();
+
+        buffer.interpolate(from, to, 0.25f);
+
+        assertEquals(2, buffer.size());
+        assertEquals(25, buffer.getX(0), DELTA);
+        assertEquals(0, buffer.getY(0), DELTA);
+        assertEquals(100, buffer.getX(1), DELTA);
+        assertEquals(125, buffer.getY(1), DELTA);
+    }
+
+    @Test
+    public void interpolationSplitsOnePointIntoSeveral() {
+        PointBuffer from = resolved(new TestPointProvider(0, 0));
+        PointBuffer to = resolved(new TestPointProvider(100, 0), new TestPointProvider(0, 100),
+                new TestPointProvider(100, 100));
+        PointBuffer buffer = new PointBuffer();
+
+        buffer.interpolate(from, to, 0f);
+
+        assertEquals(3, buffer.size());
+        for (int i = 0; i < 3; i++) {
+            assertEquals(0, buffer.getX(i), DELTA);
+            assertEquals(0, buffer.getY(i), DELTA);
+        }
+
+        buffer.interpolate(from, to, 1f);
+
+        assertEquals(0, buffer.getX(1), DELTA);
+        assertEquals(100, buffer.getY(1), DELTA);
+    }
+
+    @Test
+    public void interpolationMergesSeveralPointsIntoOne() {
+        PointBuffer from = resolved(new TestPointProvider(0, 0), new TestPointProvider(200, 0));
+        PointBuffer to = resolved(new TestPointProvider(100, 100));
+        PointBuffer buffer = new PointBuffer();
+
+        buffer.interpolate(from, to, 0.5f);
+
+        assertEquals(2, buffer.size());
+        assertEquals(50, buffer.getX(0), DELTA);
+        assertEquals(150, buffer.getX(1), DELTA);
+        assertEquals(50, buffer.getY(1), DELTA);
+    }
+
+    @Test
+    public void pointHiddenInFromStaysAtItsTarget() {
+        TestPointProvider hidden = new TestPointProvider(0, 0);
+        hidden.visible = false;
+        PointBuffer from = resolved(hidden);
+        TestPointProvider target = new TestPointProvider(100, 100);
+        PointBuffer to = resolved(target);
+        PointBuffer buffer = new PointBuffer();
+
+        buffer.interpolate(from, to, 0.5f);
+
+        assertEquals(100, buffer.getX(0), DELTA);
+        assertEquals(100, buffer.getY(0), DELTA);
+        assertTrue(buffer.isVisible(0));
+    }
+
+    @Test
+    public void interpolationToNothingIsEmpty() {
+        PointBuffer buffer = new PointBuffer();
+
+        buffer.interpolate(resolved(new TestPointProvider(0, 0)), new PointBuffer(), 0.5f);
+
+        assertEquals(0, buffer.size());
+    }
+
+    @Test
+    public void updateDoesNotAllocate() {
+        final PointBuffer buffer = buffer(points(100));
+
+        assertNoAllocation(new Runnable() {
+            @Override
+            public void run() {
+                buffer.update();
+            }
+        });
+    }
+
+    @Test
+    public void frameDoesNotAllocate() {
+        assertFrameDoesNotAllocate(false);
+    }
+
+    @Test
+    public void batchedFrameDoesNotAllocate() {
+        assertFrameDoesNotAllocate(true);
+    }
+
+    /**
+     * runs what SpotlightView.onDraw does on every frame of a morph: resolving the points,
+     * interpolating them from the previous Target, and drawing them with the default renderer
+     */
+    private static void assertFrameDoesNotAllocate(boolean batched) {
+        final PointBuffer from = resolved(points(10));
+        final PointBuffer points = buffer(points(100));
+        final PointBuffer drawn = new PointBuffer();
+        final SpotlightRenderer renderer = new XfermodeRenderer();
+        renderer.setBatched(batched);
+        final TestCanvas canvas = new TestCanvas();
+        final Paint background = new Paint();
+        final Shape shape = Shape.circle(100f);
+
+        assertNoAllocation(new Runnable() {
+            private float fraction;
+
+            @Override
+            public void run() {
+                fraction = fraction < 1f ? fraction + 0.01f : 0f;
+                points.update();
+                drawn.interpolate(from, points, fraction);
+                renderer.draw(canvas, 1080, 1920, background, drawn, shape, fraction, true);
+            }
+        });
+        assertTrue(canvas.drawCount > 0);
+    }
+
+    /**
+     * asserts that running a frame many times allocates nothing once it has been warmed up
+     */
+    private static void assertNoAllocation(Runnable frame) {
+        ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        assumeTrue(bean instanceof com.sun.management.ThreadMXBean);
+        com.sun.management.ThreadMXBean allocations = (com.sun.management.ThreadMXBean) bean;
+        assumeTrue(allocations.isThreadAllocatedMemorySupported() && allocations.isThreadAllocatedMemoryEnabled());
+        long threadId = Thread.currentThread().getId();
+        for (int i = 0; i < 1000; i++) {
+            // warms up the code under test and the measurement itself
+            frame.run();
+            allocations.getThreadAllocatedBytes(threadId);
+        }
+
+        long calibrationStart = allocations.getThreadAllocatedBytes(threadId);
+        long calibration = allocations.getThreadAllocatedBytes(threadId) - calibrationStart;
+        long start = allocations.getThreadAllocatedBytes(threadId);
+        for (int i = 0; i < 1000; i++) {
+            frame.run();
+        }
+        long allocated = allocations.getThreadAllocatedBytes(threadId) - start - calibration;
+
+        assertTrue("allocated " + allocated + " bytes", allocated <= 0);
+    }
+
+    private static PointProvider[] points(int count) {
+        PointProvider[] points = new PointProvider[count];
+        for (int i = 0; i < count; i++) {
+            points[i] = new TestPointProvider(i, i);
+        }
+        return points;
+    }
+
+    private static PointBuffer buffer(PointProvider... points) {
+        PointBuffer buffer = new PointBuffer();
+        buffer.set(Arrays.asList(points));
+        return buffer;
+    }
+
+    private static PointBuffer resolved(PointProvider... points) {
+        PointBuffer buffer = buffer(points);
+        buffer.update();
+        return buffer;
+    }
+}
@@ -0,0 +1,87 @@
+package com.takusemba.spotlight;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class ShapeTest {
+
+    @Test
+    public void ovalContainsEdgesOnItsAxes() {
+        Shape oval = Shape.oval(200, 100);
+
+        assertTrue(oval.contains(100, 0, 1f));
+        assertTrue(oval.contains(-100, 0, 1f));
+        assertTrue(oval.contains(0, 50, 1f));
+        assertTrue(oval.contains(0, -50, 1f));
+        assertFalse(oval.contains(101, 0, 1f));
+        assertFalse(oval.contains(0, -51, 1f));
+    }
+
+    @Test
+    public void ovalExcludesCornersOfItsBounds() {
+        Shape oval = Shape.oval(200, 100);
+
+        assertFalse(oval.contains(80, 40, 1f));
+        assertFalse(oval.contains(-80, -40, 1f));
+        assertTrue(oval.contains(60, 30, 1f));
+    }
+
+    @Test
+    public void ovalFollowsScale() {
+        Shape oval = Shape.oval(200, 100);
+
+        assertTrue(oval.contains(50, 0, 0.5f));
+        assertFalse(oval.contains(51, 0, 0.5f));
+        assertFalse(oval.contains(0, 0, 0f));
+    }
+
+    @Test
+    public void roundedRectContainsStraightEdges() {
+        Shape rect = Shape.roundedRect(200, 100, 20);
+
+        assertTrue(rect.contains(100, 0, 1f));
+        assertTrue(rect.contains(0, -50, 1f));
+        assertTrue(rect.contains(100, 30, 1f));
+        assertTrue(rect.contains(80, 50, 1f));
+        assertFalse(rect.contains(101, 0, 1f));
+        assertFalse(rect.contains(0, 51, 1f));
+    }
+
+    @Test
+    public void roundedRectExcludesCornerCutOut() {
+        Shape rect = Shape.roundedRect(200, 100, 20);
+
+        assertFalse(rect.contains(100, 50, 1f));
+        assertFalse(rect.contains(99, 49, 1f));
+        assertFalse(rect.contains(-99, -49, 1f));
+        assertFalse(rect.contains(-99, 49, 1f));
+        assertTrue(rect.contains(85, 35, 1f));
+        assertTrue(rect.contains(-85, -35, 1f));
+    }
+
+    @Test
+    public void roundedRectScalesItsCorners() {
+        Shape rect = Shape.roundedRect(200, 100, 20);
+
+        assertFalse(rect.contains(49, 24, 0.5f));
+        assertTrue(rect.contains(45, 20, 0.5f));
+    }
+
+    @Test
+    public void roundedRectClampsCornersToHalfOfShortSide() {
+        Shape rect = Shape.roundedRect(200, 100, 80);
+
+        assertTrue(rect.contains(100, 0, 1f));
+        assertFalse(rect.contains(100, 1, 1f));
+        assertTrue(rect.contains(50, 50, 1f));
+    }
+
+    @Test
+    public void builtInShapesAreBatched() {
+        assertTrue(Shape.circle(10).canBatch());
+        assertTrue(Shape.oval(20, 10).canBatch());
+        assertTrue(Shape.roundedRect(20, 10, 2).canBatch());
+    }
+}
@@ -0,0 +1,178 @@
+package com.takusemba.spotlight;
+
+import android.app.Activity;
+import android.os.HandlerThread;
+import android.view.View;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.Robolectric;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.RuntimeEnvironment;
+import org.robolectric.annotation.Config;
+import org.robolectric.shadows.ShadowLooper;
+
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.robolectric.Shadows.shadowOf;
+
+@RunWith(RobolectricTestRunner.class)
+@Config(constants = BuildConfig.class, sdk = 25)
+public class SpotlightTest {
+
+    private static final String TOUR = "tour";
+    /**
+     * long enough for the fade in and the reveal of the first Target to end
+     */
+    private static final long ANIMATION_TIME = 10000L;
+
+    private HandlerThread worker;
+    private TourProgressStore store;
+    private Activity activity;
+
+    @Before
+    public void setUp() {
+        worker = new HandlerThread("worker");
+        worker.start();
+        shadowOf(worker.getLooper()).pause();
+        store = new TourProgressStore(RuntimeEnvironment.application, worker.getLooper());
+        TourProgressStore.setInstance(store);
+        activity = Robolectric.setupActivity(Activity.class);
+    }
+
+    @After
+    public void tearDown() {
+        TourProgressStore.setInstance(null);
+        worker.quit();
+    }
+
+    @Test
+    public void skipsCompletedTargets() {
+        load();
+        store.markTargetCompleted(TOUR, 0);
+        RecordingTarget first = new RecordingTarget();
+        RecordingTarget second = new RecordingTarget();
+
+        Spotlight.with().setTourId(TOUR).start(activity, first, second);
+        ShadowLooper.idleMainLooper(ANIMATION_TIME);
+
+        assertNotNull(findSpotlightView());
+        assertFalse(first.started);
+        assertTrue(second.started);
+    }
+
+    @Test
+    public void skipsTourWhoseTargetsWereAllShown() {
+        load();
+        store.markTargetCompleted(TOUR, 0);
+        store.markTargetCompleted(TOUR, 1);
+        RecordingTarget first = new RecordingTarget();
+        RecordingTarget second = new RecordingTarget();
+
+        SpotlightSession session = Spotlight.with().setTourId(TOUR).start(activity, first, second);
+        ShadowLooper.idleMainLooper(ANIMATION_TIME);
+
+        assertFalse(session.isActive());
+        assertNull(findSpotlightView());
+        assertFalse(first.started);
+        assertFalse(second.started);
+        assertTrue(store.isTourCompleted(TOUR));
+    }
+
+    @Test
+    public void skipsCompletedTour() {
+        load();
+        store.markTourCompleted(TOUR);
+        RecordingTarget target = new RecordingTarget();
+        final boolean[] started = new boolean[1];
+
+        SpotlightSession session = Spotlight.with()
+                .setTourId(TOUR)
+                .setOnSpotlightStartedListener(new OnSpotlightStartedListener() {
+                    @Override
+                    public void onStarted() {
+                        started[0] = true;
+                    }
+                })
+                .start(activity, target);
+        ShadowLooper.idleMainLooper(ANIMATION_TIME);
+
+        assertFalse(session.isActive());
+        assertNull(findSpotlightView());
+        assertFalse(started[0]);
+        assertFalse(target.started);
+    }
+
+    @Test
+    public void waitsForProgressBeforeSkipping() {
+        store.markTargetCompleted(TOUR, 0);
+        RecordingTarget first = new RecordingTarget();
+        RecordingTarget second = new RecordingTarget();
+
+        Spotlight.with().setTourId(TOUR).start(activity, first, second);
+        ShadowLooper.idleMainLooper(ANIMATION_TIME);
+
+        assertFalse(first.started);
+        assertFalse(second.started);
+        assertTrue(findSpotlightView().getVisibility() != View.VISIBLE);
+
+        load();
+        ShadowLooper.idleMainLooper(ANIMATION_TIME);
+
+        assertFalse(first.started);
+        assertTrue(second.started);
+    }
+
+    /**
+     * reads the progress on the worker looper, and hands it over on the main looper
+     */
+    private void load() {
+        shadowOf(worker.getLooper()).runToEndOfTasks();
+        ShadowLooper.runUiThreadTasks();
+    }
+
+    private View findSpotlightView() {
+        return activity.getWindow().getDecorView().findViewById(R.id.tutorial_container);
+    }
+
+    private static final class RecordingTarget implements Target {
+
+        private boolean started;
+
+        @Override
+        public List<PointProvider> getPoints() {
+            return Collections.<PointProvider>singletonList(new FixedPointProvider(100, 100));
+        }
+
+        @Override
+        public float getRadius() {
+            return 100f;
+        }
+
+        @Override
+        public View getView() {
+            return null;
+        }
+
+        @Override
+        public OnTargetStateChangedListener getListener() {
+            return new OnTargetStateChangedListener<RecordingTarget>() {
+                @Override
+                public void onStarted(RecordingTarget target) {
+                    started = true;
+                }
+
+                @Override
+                public void onEnded(RecordingTarget target) {
+                }
+            };
+        }
+    }
+}
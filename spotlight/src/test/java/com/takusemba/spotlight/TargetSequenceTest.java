@@ -0,0 +1,204 @@
+package com.takusemba.spotlight;
+
+import android.view.View;
+
+import org.junit.Test;
+
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class TargetSequenceTest {
+
+    @Test
+    public void advancesInOrder() {
+        Target[] targets = targets(3);
+        TargetSequence sequence = new TargetSequence(targets);
+
+        assertSame(targets[0], sequence.current());
+        assertTrue(sequence.advance());
+        assertSame(targets[1], sequence.current());
+        assertTrue(sequence.advance());
+        assertSame(targets[2], sequence.current());
+        assertFalse(sequence.hasNext());
+        assertFalse(sequence.advance());
+        assertNull(sequence.current());
+    }
+
+    @Test
+    public void setNextWhileShowingMovesOnAdvance() {
+        TargetSequence sequence = new TargetSequence(targets(4));
+        sequence.setShowing(true);
+
+        sequence.setNext(3);
+
+        assertEquals(0, sequence.index());
+        assertTrue(sequence.advance());
+        assertEquals(3, sequence.index());
+        // the jump is only taken once
+        assertFalse(sequence.advance());
+    }
+
+    @Test
+    public void setNextWhileNotShowingMovesImmediately() {
+        TargetSequence sequence = new TargetSequence(targets(4));
+
+        sequence.setNext(2);
+
+        assertEquals(2, sequence.index());
+    }
+
+    @Test
+    public void setNextToSizeEndsSequence() {
+        TargetSequence sequence = new TargetSequence(targets(2));
+        sequence.setShowing(true);
+
+        sequence.setNext(2);
+
+        assertFalse(sequence.hasNext());
+        assertFalse(sequence.advance());
+        assertTrue(sequence.isJumpedToEnd());
+    }
+
+    @Test
+    public void naturalEndIsNotJumped() {
+        TargetSequence sequence = new TargetSequence(targets(1));
+
+        assertFalse(sequence.advance());
+        assertFalse(sequence.isJumpedToEnd());
+    }
+
+    @Test
+    public void setNextFollowingMovesToFollowingTarget() {
+        BitSet skipped = new BitSet();
+        skipped.set(1);
+        TargetSequence sequence = new TargetSequence(targets(3));
+        sequence.setSkipped(skipped);
+        sequence.setShowing(true);
+
+        sequence.setNextFollowing();
+
+        assertTrue(sequence.advance());
+        assertEquals(1, sequence.index());
+    }
+
+    @Test
+    public void setNextFollowingFromLastTargetIsNaturalEnd() {
+        TargetSequence sequence = new TargetSequence(targets(2));
+        sequence.setNext(1);
+        sequence.setShowing(true);
+
+        sequence.setNextFollowing();
+
+        assertFalse(sequence.hasNext());
+        assertFalse(sequence.advance());
+        assertFalse(sequence.isJumpedToEnd());
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void setNextOutOfRangeThrows() {
+        new TargetSequence(targets(2)).setNext(3);
+    }
+
+    @Test
+    public void skipsCompletedTargets() {
+        BitSet skipped = new BitSet();
+        skipped.set(0);
+        skipped.set(2);
+        TargetSequence sequence = new TargetSequence(targets(4));
+        sequence.setSkipped(skipped);
+
+        assertTrue(sequence.skipToFirst());
+        assertEquals(1, sequence.index());
+        assertTrue(sequence.advance());
+        assertEquals(3, sequence.index());
+    }
+
+    @Test
+    public void skipToFirstFailsWhenEverythingIsSkipped() {
+        BitSet skipped = new BitSet();
+        skipped.set(0, 2);
+        TargetSequence sequence = new TargetSequence(targets(2));
+        sequence.setSkipped(skipped);
+
+        assertFalse(sequence.skipToFirst());
+        assertNull(sequence.current());
+    }
+
+    @Test
+    public void explicitJumpShowsSkippedTarget() {
+        BitSet skipped = new BitSet();
+        skipped.set(1);
+        TargetSequence sequence = new TargetSequence(targets(3));
+        sequence.setSkipped(skipped);
+        sequence.setShowing(true);
+
+        sequence.setNext(1);
+
+        assertTrue(sequence.advance());
+        assertEquals(1, sequence.index());
+    }
+
+    @Test
+    public void jumpBeforeFirstTargetIsNotSkipped() {
+        BitSet skipped = new BitSet();
+        skipped.set(0, 2);
+        TargetSequence sequence = new TargetSequence(targets(3));
+        sequence.setSkipped(skipped);
+
+        sequence.setNext(1);
+
+        assertTrue(sequence.skipToFirst());
+        assertEquals(1, sequence.index());
+    }
+
+    @Test
+    public void appendsWhileRunning() {
+        TargetSequence sequence = new TargetSequence(targets(1));
+        assertFalse(sequence.hasNext());
+
+        Target[] appended = targets(2);
+        sequence.append(appended);
+
+        assertEquals(3, sequence.size());
+        assertTrue(sequence.advance());
+        assertSame(appended[0], sequence.current());
+    }
+
+    private static Target[] targets(int count) {
+        Target[] targets = new Target[count];
+        for (int i = 0; i < count; i++) {
+            targets[i] = new TestTarget();
+        }
+        return targets;
+    }
+
+    private static final class TestTarget implements Target {
+
+        @Override
+        public List<PointProvider> getPoints() {
+            return Collections.emptyList();
+        }
+
+        @Override
+        public float getRadius() {
+            return 100f;
+        }
+
+        @Override
+        public View getView() {
+            return null;
+        }
+
+        @Override
+        public OnTargetStateChangedListener getListener() {
+            return null;
+        }
+    }
+}
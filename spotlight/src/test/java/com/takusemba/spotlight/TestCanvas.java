@@ -0,0 +1,39 @@
+package com.takusemba.spotlight;
+
+import android.graphics.Canvas;
+import android.graphics.Paint;
+import android.graphics.Path;
+import android.graphics.RectF;
+
+/**
+ * Stand-in for the canvas of SpotlightView, which only counts the shapes drawn on it
+ */
+final class TestCanvas extends Canvas {
+
+    int drawCount;
+
+    @Override
+    public void drawRect(float left, float top, float right, float bottom, Paint paint) {
+        drawCount++;
+    }
+
+    @Override
+    public void drawCircle(float cx, float cy, float radius, Paint paint) {
+        drawCount++;
+    }
+
+    @Override
+    public void drawOval(RectF oval, Paint paint) {
+        drawCount++;
+    }
+
+    @Override
+    public void drawRoundRect(RectF rect, float rx, float ry, Paint paint) {
+        drawCount++;
+    }
+
+    @Override
+    public void drawPath(Path path, Paint paint) {
+        drawCount++;
+    }
+}
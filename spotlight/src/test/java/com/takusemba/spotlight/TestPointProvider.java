@@ -0,0 +1,39 @@
+package com.takusemba.spotlight;
+
+import android.graphics.PointF;
+import android.support.annotation.NonNull;
+
+/**
+ * Point at a settable position, which counts how often it is resolved.
+ * Writes the fields of the point directly, since the methods of PointF are not available on the JVM.
+ */
+final class TestPointProvider extends AbstractPointProvider {
+
+    float x;
+    float y;
+    boolean visible = true;
+    boolean cacheable;
+    int resolveCount;
+
+    TestPointProvider(float x, float y) {
+        this.x = x;
+        this.y = y;
+    }
+
+    @Override
+    public void getPoint(@NonNull PointF out) {
+        out.x = x;
+        out.y = y;
+        resolveCount++;
+    }
+
+    @Override
+    public boolean isVisible() {
+        return visible;
+    }
+
+    @Override
+    boolean isCacheable() {
+        return cacheable;
+    }
+}
@@ -0,0 +1,91 @@
+package com.takusemba.spotlight;
+
+import android.content.res.Resources;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.RuntimeEnvironment;
+import org.robolectric.annotation.Config;
+
+import java.io.IOException;
+import java.io.StringReader;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+@RunWith(RobolectricTestRunner.class)
+@Config(constants = BuildConfig.class, sdk = 25)
+public class TourLoaderTest {
+
+    private static final float DELTA = 0.001f;
+
+    private Resources resources;
+    private String packageName;
+
+    @Before
+    public void setUp() {
+        resources = RuntimeEnvironment.application.getResources();
+        packageName = RuntimeEnvironment.application.getPackageName();
+    }
+
+    @Test
+    public void parsesTargets() throws IOException {
+        TourDefinition tour = parse("{\"targets\": ["
+                + "{\"views\": [\"tutorial_container\", \"tutorial_info\"], \"shape\": \"circle\", \"radius\": 40,"
+                + " \"title\": \"title\", \"description\": \"description\", \"placement\": \"below\"},"
+                + "{\"views\": [\"tutorial_info\"], \"shape\": \"roundedRect\", \"width\": 300, \"height\": 200,"
+                + " \"cornerRadius\": 24, \"layout\": \"layout_spotlight\"}"
+                + "]}");
+
+        assertEquals(2, tour.size());
+        TargetDefinition simple = tour.get(0);
+        assertArrayEquals(new int[]{R.id.tutorial_container, R.id.tutorial_info}, simple.getViewIds());
+        assertEquals(40, simple.getShape().getExtent(), DELTA);
+        assertEquals("title", simple.getTitle());
+        assertEquals("description", simple.getDescription());
+        assertEquals(SimpleTarget.PLACEMENT_BELOW, simple.getPlacement());
+        assertEquals(0, simple.getLayoutId());
+        TargetDefinition custom = tour.get(1);
+        assertEquals(R.layout.layout_spotlight, custom.getLayoutId());
+        assertEquals(150, custom.getShape().getHalfWidth(), DELTA);
+        assertEquals(100, custom.getShape().getHalfHeight(), DELTA);
+    }
+
+    @Test
+    public void fillsInDefaults() throws IOException {
+        TourDefinition tour = parse("{\"version\": 2, \"targets\": [{\"views\": [], \"title\": null, \"unknown\": {}}]}");
+
+        TargetDefinition target = tour.get(0);
+        assertEquals(0, target.getViewIds().length);
+        assertEquals(100f, target.getShape().getExtent(), DELTA);
+        assertEquals(SimpleTarget.PLACEMENT_AUTO, target.getPlacement());
+        assertNull(target.getTitle());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsUnknownView() throws IOException {
+        parse("{\"targets\": [{\"views\": [\"no_such_view\"]}]}");
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsUnknownShape() throws IOException {
+        parse("{\"targets\": [{\"shape\": \"star\"}]}");
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsUnknownPlacement() throws IOException {
+        parse("{\"targets\": [{\"placement\": \"behind\"}]}");
+    }
+
+    @Test(expected = IOException.class)
+    public void rejectsMalformedJson() throws IOException {
+        parse("{\"targets\": [");
+    }
+
+    private TourDefinition parse(String json) throws IOException {
+        return TourLoader.parse(new StringReader(json), resources, packageName);
+    }
+}
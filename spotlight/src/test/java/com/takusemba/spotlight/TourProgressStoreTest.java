@@ -0,0 +1,177 @@
+package com.takusemba.spotlight;
+
+import android.content.Context;
+import android.content.SharedPreferences;
+import android.os.HandlerThread;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.RuntimeEnvironment;
+import org.robolectric.annotation.Config;
+import org.robolectric.shadows.ShadowLooper;
+
+import java.util.BitSet;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.robolectric.Shadows.shadowOf;
+
+@RunWith(RobolectricTestRunner.class)
+@Config(constants = BuildConfig.class, sdk = 25)
+public class TourProgressStoreTest {
+
+    private static final String TOUR = "tour";
+
+    private HandlerThread worker;
+    private SharedPreferences preferences;
+
+    @Before
+    public void setUp() {
+        worker = new HandlerThread("worker");
+        worker.start();
+        // nothing is read nor written until the test runs the tasks of each looper
+        shadowOf(worker.getLooper()).pause();
+        ShadowLooper.pauseMainLooper();
+        preferences = RuntimeEnvironment.application.getSharedPreferences("spotlight_progress", Context.MODE_PRIVATE);
+    }
+
+    @After
+    public void tearDown() {
+        worker.quit();
+    }
+
+    @Test
+    public void mergesStoredProgressIntoHandedOutBitsets() {
+        preferences.edit().putString("targets:" + TOUR, "0,2").putString("tour:" + TOUR, "completed").commit();
+        TourProgressStore store = createStore();
+        BitSet bits = store.getCompletedTargets(TOUR);
+        store.markTargetCompleted(TOUR, 1);
+
+        assertFalse(store.isLoaded());
+        assertFalse(bits.get(0));
+        assertFalse(store.isTourCompleted(TOUR));
+
+        load();
+
+        assertTrue(store.isLoaded());
+        assertSame(bits, store.getCompletedTargets(TOUR));
+        assertTrue(bits.get(0));
+        assertTrue(bits.get(1));
+        assertTrue(bits.get(2));
+        assertTrue(store.isTourCompleted(TOUR));
+    }
+
+    @Test
+    public void resetBeforeLoadingDropsStoredProgress() {
+        preferences.edit().putString("targets:" + TOUR, "0,1").putString("tour:" + TOUR, "completed").commit();
+        TourProgressStore store = createStore();
+        BitSet bits = store.getCompletedTargets(TOUR);
+        store.reset(TOUR);
+
+        load();
+        flush();
+
+        assertTrue(bits.isEmpty());
+        assertFalse(store.isTourCompleted(TOUR));
+        assertNull(preferences.getString("targets:" + TOUR, null));
+        assertNull(preferences.getString("tour:" + TOUR, null));
+    }
+
+    @Test
+    public void defersWritesUntilLoaded() {
+        preferences.edit().putString("targets:" + TOUR, "3").commit();
+        TourProgressStore store = createStore();
+        store.markTargetCompleted(TOUR, 0);
+        store.markTourCompleted(TOUR);
+
+        // the delayed write runs before the progress is loaded, and must not overwrite it
+        ShadowLooper.runUiThreadTasksIncludingDelayedTasks();
+        assertFalse(store.isLoaded());
+        assertEquals("3", preferences.getString("targets:" + TOUR, null));
+
+        load();
+        flush();
+
+        assertEquals("0,3", preferences.getString("targets:" + TOUR, null));
+        assertEquals("completed", preferences.getString("tour:" + TOUR, null));
+    }
+
+    @Test
+    public void runsPendingActionsOnceLoaded() {
+        TourProgressStore store = createStore();
+        final boolean[] ran = new boolean[1];
+        store.runWhenLoaded(new Runnable() {
+            @Override
+            public void run() {
+                ran[0] = true;
+            }
+        });
+
+        assertFalse(ran[0]);
+
+        load();
+
+        assertTrue(ran[0]);
+    }
+
+    @Test
+    public void encodesPositionsInOrder() {
+        BitSet bits = new BitSet();
+        bits.set(5);
+        bits.set(0);
+        bits.set(2);
+
+        assertEquals("0,2,5", TourProgressStore.encode(bits));
+        assertEquals("", TourProgressStore.encode(new BitSet()));
+    }
+
+    @Test
+    public void decodesWhatWasEncoded() {
+        BitSet bits = new BitSet();
+        bits.set(1);
+        bits.set(64);
+        bits.set(1000);
+
+        assertEquals(bits, TourProgressStore.decode(TourProgressStore.encode(bits)));
+    }
+
+    @Test
+    public void decodesEmptyValue() {
+        assertTrue(TourProgressStore.decode("").isEmpty());
+    }
+
+    @Test
+    public void skipsMalformedPositions() {
+        BitSet expected = new BitSet();
+        expected.set(1);
+        expected.set(3);
+
+        assertEquals(expected, TourProgressStore.decode("1,x,-2,,3"));
+    }
+
+    private TourProgressStore createStore() {
+        return new TourProgressStore(RuntimeEnvironment.application, worker.getLooper());
+    }
+
+    /**
+     * reads the progress on the worker looper, and hands it over on the main looper
+     */
+    private void load() {
+        shadowOf(worker.getLooper()).runToEndOfTasks();
+        ShadowLooper.runUiThreadTasks();
+    }
+
+    /**
+     * runs the coalesced write on the main looper, and commits it on the worker looper
+     */
+    private void flush() {
+        ShadowLooper.runUiThreadTasksIncludingDelayedTasks();
+        shadowOf(worker.getLooper()).runToEndOfTasks();
+    }
+}